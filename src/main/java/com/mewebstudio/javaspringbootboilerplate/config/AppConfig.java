@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mewebstudio.javaspringbootboilerplate.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.core.jackson.ModelResolver;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -15,11 +17,12 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.ApplicationEventMulticaster;
-import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -28,11 +31,13 @@ import org.thymeleaf.templatemode.TemplateMode;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.SECURITY_SCHEME_NAME;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
     /**
      * Locale resolver bean.
@@ -62,13 +67,35 @@ public class AppConfig {
     }
 
     /**
-     * Password encoder.
+     * Password encoder. Hashes are prefixed with the id of their encoder, so the cost or the algorithm can change
+     * without invalidating stored passwords. Hashes stored before the prefixes are matched with BCrypt. Passwords are
+     * hashed on a bounded pool, requests fail with 503 when its queue is full.
      *
+     * @param encoderId      String id of the encoder of new hashes
+     * @param bcryptStrength int
+     * @param poolSize       int
+     * @param queueCapacity  int
+     * @param retryAfter     long seconds
+     * @param meterRegistry  MeterRegistry
      * @return PasswordEncoder
      */
     @Bean
-    public PasswordEncoder delegatingPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder delegatingPasswordEncoder(
+        @Value("${app.password.encoder.id}") final String encoderId,
+        @Value("${app.password.encoder.bcrypt-strength}") final int bcryptStrength,
+        @Value("${app.password.hashing.pool-size}") final int poolSize,
+        @Value("${app.password.hashing.queue-capacity}") final int queueCapacity,
+        @Value("${app.password.hashing.retry-after}") final long retryAfter,
+        final MeterRegistry meterRegistry
+    ) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, Map.of(
+            "bcrypt", bcrypt,
+            "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        ));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, retryAfter, meterRegistry);
     }
 
     /**
@@ -96,43 +123,68 @@ public class AppConfig {
     }
 
     /**
-     * Simple application event multicaster bean.
+     * Application event multicaster bean. Listeners run on a bounded executor, the publishing thread runs the
+     * listener itself when the pool and the queue are full.
      *
-     * @return ApplicationEventMulticaster
+     * @param coreSize         int
+     * @param maxSize          int
+     * @param queueCapacity    int
+     * @param awaitTermination int seconds to wait for queued events on shutdown
+     * @return InstrumentedApplicationEventMulticaster
      */
     @Bean(name = "applicationEventMulticaster")
-    public ApplicationEventMulticaster simpleApplicationEventMulticaster() {
-        SimpleApplicationEventMulticaster eventMulticaster = new SimpleApplicationEventMulticaster();
-        eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor());
-
-        return eventMulticaster;
+    public InstrumentedApplicationEventMulticaster applicationEventMulticaster(
+        @Value("${app.events.executor.core-size}") final int coreSize,
+        @Value("${app.events.executor.max-size}") final int maxSize,
+        @Value("${app.events.executor.queue-capacity}") final int queueCapacity,
+        @Value("${app.events.executor.await-termination}") final int awaitTermination
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("app-event-");
+        executor.setRejectedExecutionHandler(new CallerRunsCountingPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitTermination);
+        executor.initialize();
+
+        return new InstrumentedApplicationEventMulticaster(executor);
     }
 
     /**
      * Spring template engine bean.
      *
+     * @param htmlTemplateResolver SpringResourceTemplateResolver
      * @return SpringTemplateEngine
      */
     @Bean
-    public SpringTemplateEngine springTemplateEngine() {
+    public SpringTemplateEngine springTemplateEngine(final SpringResourceTemplateResolver htmlTemplateResolver) {
         SpringTemplateEngine templateEngine = new SpringTemplateEngine();
-        templateEngine.addTemplateResolver(htmlTemplateResolver());
+        templateEngine.addTemplateResolver(htmlTemplateResolver);
 
         return templateEngine;
     }
 
     /**
-     * Spring resource template resolver bean.
+     * Spring resource template resolver bean. Parsed templates and fragments are cached until the TTL expires.
      *
+     * @param cacheable  boolean
+     * @param cacheTtlMs Long milliseconds a parsed template is cached for
      * @return SpringResourceTemplateResolver
      */
     @Bean
-    public SpringResourceTemplateResolver htmlTemplateResolver() {
+    public SpringResourceTemplateResolver htmlTemplateResolver(
+        @Value("${app.mail.template-cache.enabled}") final boolean cacheable,
+        @Value("${app.mail.template-cache.ttl}") final Long cacheTtlMs
+    ) {
         SpringResourceTemplateResolver emailTemplateResolver = new SpringResourceTemplateResolver();
         emailTemplateResolver.setPrefix("classpath:/templates/");
         emailTemplateResolver.setSuffix(".html");
         emailTemplateResolver.setTemplateMode(TemplateMode.HTML);
         emailTemplateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        emailTemplateResolver.setCacheable(cacheable);
+        emailTemplateResolver.setCacheTTLMs(cacheTtlMs);
 
         return emailTemplateResolver;
     }
@@ -0,0 +1,29 @@
+package com.mewebstudio.javaspringbootboilerplate.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caller runs rejection policy that counts the rejected tasks. When the pool and the queue are full the publishing
+ * thread runs the task itself, which slows the publisher down instead of dropping the event or starting new threads.
+ */
+@Slf4j
+public class CallerRunsCountingPolicy implements RejectedExecutionHandler {
+    private final ThreadPoolExecutor.CallerRunsPolicy delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Override
+    public void rejectedExecution(final Runnable runnable, final ThreadPoolExecutor executor) {
+        rejected.increment();
+        log.warn("Event executor is saturated, running the task on the caller thread");
+        delegate.rejectedExecution(runnable, executor);
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
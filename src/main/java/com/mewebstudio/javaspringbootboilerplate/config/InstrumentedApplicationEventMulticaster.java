@@ -0,0 +1,117 @@
+package com.mewebstudio.javaspringbootboilerplate.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Application event multicaster that runs listeners on a bounded executor and records the latency of every listener.
+ * Transactional event listeners are invoked on the publishing thread, they only register a transaction
+ * synchronization and would lose the transaction of the publisher on another thread.
+ * The executor is owned by the multicaster, so it does not replace the auto-configured application task executor,
+ * and queued events are drained when the context is closed.
+ */
+public class InstrumentedApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+    implements MeterBinder, DisposableBean {
+    private static final String EXECUTOR_NAME = "applicationEvents";
+
+    private static final String TIMER_NAME = "application.events.listener";
+
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Instrumented application event multicaster constructor.
+     *
+     * @param taskExecutor ThreadPoolTaskExecutor initialized executor
+     */
+    public InstrumentedApplicationEventMulticaster(final ThreadPoolTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+        setTaskExecutor(taskExecutor);
+    }
+
+    @Override
+    public void multicastEvent(@NonNull final ApplicationEvent event, @Nullable final ResolvableType eventType) {
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        Executor executor = getTaskExecutor();
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            if (executor != null && !(listener instanceof TransactionalApplicationListener<?>)) {
+                executor.execute(() -> invokeListener(listener, event));
+            } else {
+                invokeListener(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Register active, queued and rejected metrics of the executor. The registry is created after the multicaster,
+     * listener latencies are recorded from this point on.
+     *
+     * @param registry MeterRegistry
+     */
+    @Override
+    public void bindTo(@NonNull final MeterRegistry registry) {
+        ThreadPoolExecutor executor = taskExecutor.getThreadPoolExecutor();
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(registry);
+        if (executor.getRejectedExecutionHandler() instanceof CallerRunsCountingPolicy policy) {
+            FunctionCounter.builder("executor.rejected", policy, CallerRunsCountingPolicy::getRejectedCount)
+                .tag("name", EXECUTOR_NAME)
+                .register(registry);
+        }
+        this.meterRegistry = registry;
+    }
+
+    @Override
+    public void destroy() {
+        taskExecutor.destroy();
+    }
+
+    @Override
+    protected void invokeListener(@NonNull final ApplicationListener<?> listener, @NonNull final ApplicationEvent event) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            super.invokeListener(listener, event);
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            super.invokeListener(listener, event);
+        } catch (RuntimeException | Error e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                .tag("listener", getListenerName(listener))
+                .tag("event", event.getClass().getSimpleName())
+                .tag("outcome", outcome)
+                .register(registry));
+        }
+    }
+
+    private static String getListenerName(final ApplicationListener<?> listener) {
+        if (listener instanceof SmartApplicationListener smartListener && !smartListener.getListenerId().isEmpty()) {
+            return smartListener.getListenerId();
+        }
+
+        return listener.getClass().getName();
+    }
+}
@@ -2,6 +2,7 @@ package com.mewebstudio.javaspringbootboilerplate.config;
 
 import com.mewebstudio.javaspringbootboilerplate.security.JwtAuthenticationEntryPoint;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtAuthenticationFilter;
+import com.mewebstudio.javaspringbootboilerplate.security.RouteClassifier;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -47,15 +48,7 @@ public class WebSecurityConfig {
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(requests -> requests
-                .requestMatchers(
-                    "/",
-                    "/auth/**",
-                    "/public/**",
-                    "/assets/**",
-                    "/api-docs/**",
-                    "/swagger-ui/**",
-                    "/webjars/**"
-                ).permitAll()
+                .requestMatchers(RouteClassifier.PUBLIC_PATTERNS).permitAll()
                 .requestMatchers("/admin/**").hasAuthority(Constants.RoleEnum.ADMIN.name())
                 .anyRequest().authenticated()
             )
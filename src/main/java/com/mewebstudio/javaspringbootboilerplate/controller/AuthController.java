@@ -9,6 +9,7 @@ import com.mewebstudio.javaspringbootboilerplate.dto.response.ErrorResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.SuccessResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.auth.PasswordResetResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.auth.TokenResponse;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtSigningKeys;
 import com.mewebstudio.javaspringbootboilerplate.service.AuthService;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.PasswordResetTokenService;
@@ -22,6 +23,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -33,6 +36,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.SECURITY_SCHEME_NAME;
 
@@ -49,6 +56,8 @@ public class AuthController extends AbstractBaseController {
 
     private final MessageSourceService messageSourceService;
 
+    private final JwtSigningKeys jwtSigningKeys;
+
     @PostMapping("/login")
     @Operation(
         summary = "Login endpoint",
@@ -347,4 +356,34 @@ public class AuthController extends AbstractBaseController {
             .message(messageSourceService.get("logout_successfully"))
             .build());
     }
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(
+        summary = "JSON Web Key Set to verify tokens",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Successful operation",
+                content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                responseCode = "304",
+                description = "Not modified"
+            )
+        }
+    )
+    public ResponseEntity<Map<String, Object>> jwks(final WebRequest webRequest) {
+        CacheControl cacheControl = CacheControl.maxAge(jwtSigningKeys.getJwksMaxAge(), TimeUnit.SECONDS).cachePublic();
+        if (webRequest.checkNotModified(jwtSigningKeys.getJwksETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(cacheControl)
+                .eTag(jwtSigningKeys.getJwksETag())
+                .build();
+        }
+
+        return ResponseEntity.ok()
+            .cacheControl(cacheControl)
+            .eTag(jwtSigningKeys.getJwksETag())
+            .body(jwtSigningKeys.getJwks());
+    }
 }
@@ -4,14 +4,18 @@ import com.mewebstudio.javaspringbootboilerplate.controller.AbstractBaseControll
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.CreateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.ErrorResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UsersPaginationResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserExportService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserImportService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -20,13 +24,19 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,12 +46,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.SECURITY_SCHEME_NAME;
@@ -51,13 +71,24 @@ import static com.mewebstudio.javaspringbootboilerplate.util.Constants.SECURITY_
 @RequestMapping("/admin/users")
 @Tag(name = "101. Admin - Users", description = "Admin - Users API")
 public class UserController extends AbstractBaseController {
+    private static final String RELEVANCE = "relevance";
+
     private static final String[] SORT_COLUMNS = new String[]{"id", "email", "name", "lastName", "blockedAt",
-        "createdAt", "updatedAt"};
+        "createdAt", "updatedAt", RELEVANCE};
+
+    private static final String[] CURSOR_SORT_COLUMNS = new String[]{"id", "email", "name", "lastName", "createdAt",
+        "updatedAt"};
+
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = UserController.class.getName() + ".exportTimeout";
 
     private final UserService userService;
 
     private final MessageSourceService messageSourceService;
 
+    private final UserExportService userExportService;
+
+    private final UserImportService userImportService;
+
     @GetMapping
     @Operation(
         summary = "Users list endpoint",
@@ -102,7 +133,7 @@ public class UserController extends AbstractBaseController {
         @RequestParam(required = false) final Boolean isAvatar,
         @Parameter(name = "isBlocked", description = "Is blocked?", example = "true")
         @RequestParam(required = false) final Boolean isBlocked,
-        @Parameter(name = "q", description = "Search keyword", example = "lorem")
+        @Parameter(name = "q", description = "Search keyword, a full user ID is matched exactly", example = "lorem")
         @RequestParam(required = false) final String q,
         @Parameter(name = "page", description = "Page number", example = "1")
         @RequestParam(defaultValue = "1", required = false) final Integer page,
@@ -111,36 +142,174 @@ public class UserController extends AbstractBaseController {
             required = false) final Integer size,
         @Parameter(name = "sortBy", description = "Sort by column", example = "createdAt",
             schema = @Schema(type = "String", allowableValues = {"id", "email", "name", "lastName", "blockedAt",
-                "createdAt", "updatedAt"}))
+                "createdAt", "updatedAt", "relevance"}))
         @RequestParam(defaultValue = "createdAt", required = false) final String sortBy,
         @Parameter(name = "sort", description = "Sort direction", schema = @Schema(type = "string",
             allowableValues = {"asc", "desc"}, defaultValue = "asc"))
-        @RequestParam(defaultValue = "asc", required = false) @Pattern(regexp = "asc|desc") final String sort
+        @RequestParam(defaultValue = "asc", required = false) @Pattern(regexp = "asc|desc") final String sort,
+        @Parameter(name = "cursor", description = "Cursor of the page, switches to cursor pagination and the page "
+            + "parameter is ignored. Send it empty for the first page and then the nextCursor of the previous page")
+        @RequestParam(required = false) final String cursor,
+        @Parameter(name = "withTotal", description = "Count the total in cursor mode", example = "false")
+        @RequestParam(defaultValue = "false", required = false) final Boolean withTotal,
+        @Parameter(name = "count", description = "Total count mode, estimated is read from the table statistics "
+            + "when there is no filter", schema = @Schema(type = "string", allowableValues = {"exact", "estimated",
+            "none"}, defaultValue = "exact"))
+        @RequestParam(defaultValue = "exact", required = false) @Pattern(regexp = "exact|estimated|none")
+        final String count
     ) {
         sortColumnCheck(messageSourceService, SORT_COLUMNS, sortBy);
 
-        Page<User> users = userService.findAll(
-            UserCriteria.builder()
-                .roles(roles != null ? roles.stream().map(Constants.RoleEnum::get)
-                    .collect(Collectors.toList()) : null)
-                .createdAtStart(createdAtStart)
-                .createdAtEnd(createdAtEnd)
-                .isAvatar(isAvatar)
-                .isBlocked(isBlocked)
-                .q(q)
-                .build(),
-            PaginationCriteria.builder()
-                .page(page)
-                .size(size)
-                .sortBy(sortBy)
-                .sort(sort)
-                .columns(SORT_COLUMNS)
-                .build()
-        );
+        boolean relevance = RELEVANCE.equals(sortBy) && StringUtils.hasText(q);
+        UserCriteria criteria = buildCriteria(roles, createdAtStart, createdAtEnd, isAvatar, isBlocked, q);
+        criteria.setSortByRelevance(relevance);
+        PaginationCriteria paginationCriteria = PaginationCriteria.builder()
+            .page(page)
+            .size(size)
+            .sortBy(RELEVANCE.equals(sortBy) ? (relevance ? null : "createdAt") : sortBy)
+            .sort(sort)
+            .columns(SORT_COLUMNS)
+            .cursor(cursor)
+            .withTotal(withTotal)
+            .countMode(count != null ? Constants.CountModeEnum.valueOf(count.toUpperCase()) : null)
+            .build();
+
+        if (cursor != null) {
+            sortColumnCheck(messageSourceService, CURSOR_SORT_COLUMNS, sortBy);
 
-        return ResponseEntity.ok(new UsersPaginationResponse(users, users.stream()
+            Slice<User> users = userService.findAllByCursor(criteria, paginationCriteria);
+
+            return ResponseEntity.ok(new UsersPaginationResponse(users, users.stream()
+                .map(UserResponse::convert)
+                .toList(), PageCursor.next(users), Boolean.TRUE.equals(withTotal) ? userService.count(criteria) : null));
+        }
+
+        Slice<User> users = userService.findAll(criteria, paginationCriteria);
+        List<UserResponse> items = users.stream()
             .map(UserResponse::convert)
-            .toList()));
+            .toList();
+
+        return ResponseEntity.ok(users instanceof Page<User> usersPage ? new UsersPaginationResponse(usersPage, items)
+            : new UsersPaginationResponse(users, items));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Users export endpoint",
+        security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Success operation, users are streamed as NDJSON or CSV",
+                content = {
+                    @Content(mediaType = "application/x-ndjson"),
+                    @Content(mediaType = "text/csv")
+                }
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "401",
+                description = "Full authentication is required to access this resource",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            )
+        }
+    )
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(name = "roles", description = "Roles", example = "admin,user")
+        @RequestParam(required = false) final List<String> roles,
+        @Parameter(name = "createdAtStart", description = "Created date start", example = "2022-10-25T22:54:58")
+        @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdAtStart,
+        @Parameter(name = "createdAtEnd", description = "Created date end", example = "2022-10-25T22:54:58")
+        @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdAtEnd,
+        @Parameter(name = "isAvatar", description = "Is avatar?", example = "true")
+        @RequestParam(required = false) final Boolean isAvatar,
+        @Parameter(name = "isBlocked", description = "Is blocked?", example = "true")
+        @RequestParam(required = false) final Boolean isBlocked,
+        @Parameter(name = "q", description = "Search keyword, a full user ID is matched exactly", example = "lorem")
+        @RequestParam(required = false) final String q,
+        @Parameter(name = "sortBy", description = "Sort by column", example = "createdAt",
+            schema = @Schema(type = "String", allowableValues = {"id", "email", "name", "lastName", "createdAt",
+                "updatedAt"}))
+        @RequestParam(defaultValue = "createdAt", required = false) final String sortBy,
+        @Parameter(name = "sort", description = "Sort direction", schema = @Schema(type = "string",
+            allowableValues = {"asc", "desc"}, defaultValue = "asc"))
+        @RequestParam(defaultValue = "asc", required = false) @Pattern(regexp = "asc|desc") final String sort,
+        @Parameter(name = "format", description = "Export format", schema = @Schema(type = "string",
+            allowableValues = {"ndjson", "csv"}, defaultValue = "ndjson"))
+        @RequestParam(defaultValue = "ndjson", required = false) @Pattern(regexp = "ndjson|csv") final String format,
+        final HttpServletRequest request
+    ) {
+        sortColumnCheck(messageSourceService, CURSOR_SORT_COLUMNS, sortBy);
+        setExportTimeout(request, userExportService.getTimeout());
+
+        UserCriteria criteria = buildCriteria(roles, createdAtStart, createdAtEnd, isAvatar, isBlocked, q);
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sort).orElse(Sort.Direction.ASC);
+        Sort order = "id".equals(sortBy) ? Sort.by(direction, sortBy)
+            : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        Constants.ExportFormatEnum exportFormat = Constants.ExportFormatEnum.valueOf(format.toUpperCase());
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("users." + exportFormat.getExtension()).build().toString())
+            .body(outputStream -> userExportService.export(criteria, order, exportFormat, outputStream));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Users import endpoint",
+        security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Import report, rejected rows are listed with their errors",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = UserImportResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "401",
+                description = "Full authentication is required to access this resource",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            )
+        }
+    )
+    public ResponseEntity<UserImportResponse> importUsers(
+        @Parameter(name = "file", description = "CSV file with a header row or one JSON object per line",
+            required = true)
+        @RequestPart("file") final MultipartFile file,
+        @Parameter(name = "format", description = "Import format", schema = @Schema(type = "string",
+            allowableValues = {"ndjson", "csv"}, defaultValue = "ndjson"))
+        @RequestParam(defaultValue = "ndjson", required = false) @Pattern(regexp = "ndjson|csv") final String format
+    ) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importUsers(inputStream,
+                Constants.ExportFormatEnum.valueOf(format.toUpperCase())));
+        }
     }
 
     @PostMapping
@@ -333,4 +502,48 @@ public class UserController extends AbstractBaseController {
 
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Build user criteria from the filter parameters.
+     *
+     * @param roles          List of role names
+     * @param createdAtStart LocalDateTime
+     * @param createdAtEnd   LocalDateTime
+     * @param isAvatar       Boolean
+     * @param isBlocked      Boolean
+     * @param q              String
+     * @return UserCriteria
+     */
+    private UserCriteria buildCriteria(final List<String> roles,
+                                       final LocalDateTime createdAtStart,
+                                       final LocalDateTime createdAtEnd,
+                                       final Boolean isAvatar,
+                                       final Boolean isBlocked,
+                                       final String q) {
+        return UserCriteria.builder()
+            .roles(roles != null ? roles.stream().map(Constants.RoleEnum::get)
+                .collect(Collectors.toList()) : null)
+            .createdAtStart(createdAtStart)
+            .createdAtEnd(createdAtEnd)
+            .isAvatar(isAvatar)
+            .isBlocked(isBlocked)
+            .q(q)
+            .build();
+    }
+
+    /**
+     * Replace the MVC async request timeout for the streamed body of this request, so a long export is not cut off.
+     *
+     * @param request HttpServletRequest
+     * @param timeout long milliseconds
+     */
+    private static void setExportTimeout(final HttpServletRequest request, final long timeout) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void beforeConcurrentHandling(final NativeWebRequest webRequest, final Callable<T> task) {
+                    ((AsyncWebRequest) webRequest).setTimeout(timeout);
+                }
+            });
+    }
 }
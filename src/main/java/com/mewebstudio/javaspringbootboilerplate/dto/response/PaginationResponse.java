@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -43,6 +44,14 @@ public class PaginationResponse<T> extends AbstractBaseResponse {
     )
     private Long total;
 
+    @Schema(
+        name = "nextCursor",
+        description = "Cursor of the next page, only set in cursor mode",
+        type = "String",
+        example = "Y3JlYXRlZEF0fEFTQ3w"
+    )
+    private String nextCursor;
+
     @ArraySchema(
         schema = @Schema(
             type = "T",
@@ -58,4 +67,18 @@ public class PaginationResponse<T> extends AbstractBaseResponse {
         this.total = pageModel.getTotalElements();
         this.items = items;
     }
+
+    public PaginationResponse(final Slice<?> sliceModel, final List<T> items) {
+        this.page = sliceModel.getNumber() + 1;
+        this.size = sliceModel.getSize();
+        this.items = items;
+    }
+
+    public PaginationResponse(final Slice<?> sliceModel, final List<T> items, final String nextCursor,
+                              final Long total) {
+        this.size = sliceModel.getSize();
+        this.total = total;
+        this.nextCursor = nextCursor;
+        this.items = items;
+    }
 }
@@ -0,0 +1,39 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.AbstractBaseResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@SuperBuilder
+public class UserImportErrorResponse extends AbstractBaseResponse {
+    @Schema(
+        name = "line",
+        description = "Line of the rejected row in the uploaded file",
+        type = "Integer",
+        example = "2"
+    )
+    private int line;
+
+    @Schema(
+        name = "email",
+        description = "E-mail of the rejected row",
+        type = "String",
+        nullable = true,
+        example = "mail@example.com"
+    )
+    private String email;
+
+    @Schema(
+        name = "items",
+        description = "Errors of the row",
+        type = "Map",
+        example = "{\"email\": \"E-mail is already using\"}"
+    )
+    private Map<String, String> items;
+}
@@ -0,0 +1,37 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.AbstractBaseResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@SuperBuilder
+public class UserImportResponse extends AbstractBaseResponse {
+    @Schema(
+        name = "total",
+        description = "Number of rows in the uploaded file",
+        type = "Integer",
+        example = "100"
+    )
+    private int total;
+
+    @Schema(
+        name = "imported",
+        description = "Number of created users",
+        type = "Integer",
+        example = "98"
+    )
+    private int imported;
+
+    @Schema(
+        name = "errors",
+        description = "Rejected rows",
+        type = "List"
+    )
+    private List<UserImportErrorResponse> errors;
+}
@@ -2,6 +2,7 @@ package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
 
 import com.mewebstudio.javaspringbootboilerplate.dto.response.PaginationResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -9,4 +10,13 @@ public class UsersPaginationResponse extends PaginationResponse<UserResponse> {
     public UsersPaginationResponse(final Page<?> pageModel, final List<UserResponse> items) {
         super(pageModel, items);
     }
+
+    public UsersPaginationResponse(final Slice<?> sliceModel, final List<UserResponse> items) {
+        super(sliceModel, items);
+    }
+
+    public UsersPaginationResponse(final Slice<?> sliceModel, final List<UserResponse> items, final String nextCursor,
+                                   final Long total) {
+        super(sliceModel, items, nextCursor, total);
+    }
 }
@@ -1,8 +1,7 @@
 package com.mewebstudio.javaspringbootboilerplate.entity;
 
+import com.mewebstudio.javaspringbootboilerplate.entity.generator.UuidV7Id;
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
@@ -19,7 +18,7 @@ import java.util.UUID;
 @MappedSuperclass
 public class AbstractBaseEntity implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
 
     @CreationTimestamp
@@ -1,45 +1,55 @@
 package com.mewebstudio.javaspringbootboilerplate.entity;
 
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.mewebstudio.javaspringbootboilerplate.util.TokenDigest;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
-import org.springframework.data.redis.core.TimeToLive;
-import org.springframework.data.redis.core.index.Indexed;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Builder
 @Getter
 @Setter
-@RedisHash(value = "jwtTokens")
+@NoArgsConstructor
+@AllArgsConstructor
 public class JwtToken {
-    @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Indexed
     private UUID userId;
 
-    @Indexed
     private String token;
 
-    @Indexed
     private String refreshToken;
 
-    @Indexed
     private Boolean rememberMe;
 
-    @Indexed
     private String ipAddress;
 
-    @Indexed
     private String userAgent;
 
-    @TimeToLive(unit = TimeUnit.MILLISECONDS)
     private Long tokenTimeToLive;
+
+    private String tokenDigest;
+
+    private String refreshTokenDigest;
+
+    /**
+     * Digest of the access token. Loaded tokens only carry the digest, the raw token is not stored.
+     *
+     * @return String
+     */
+    public String getTokenDigest() {
+        return tokenDigest != null ? tokenDigest : TokenDigest.sha256(token);
+    }
+
+    /**
+     * Digest of the refresh token. Loaded tokens only carry the digest, the raw token is not stored.
+     *
+     * @return String
+     */
+    public String getRefreshTokenDigest() {
+        return refreshTokenDigest != null ? refreshTokenDigest : TokenDigest.sha256(refreshToken);
+    }
 }
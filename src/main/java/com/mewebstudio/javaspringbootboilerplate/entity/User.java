@@ -9,14 +9,15 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
-import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,7 +28,8 @@ import java.util.List;
     @UniqueConstraint(columnNames = {"email"}, name = "uk_users_email")
 }, indexes = {
     @Index(columnList = "name", name = "idx_users_name"),
-    @Index(columnList = "last_name", name = "idx_users_last_name")
+    @Index(columnList = "last_name", name = "idx_users_last_name"),
+    @Index(columnList = "created_at, id", name = "idx_users_created_at_id")
 })
 @Getter
 @Setter
@@ -51,6 +53,7 @@ public class User extends AbstractBaseEntity {
     private String avatar;
 
     @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.DETACH)
+    @BatchSize(size = 100)
     @JoinTable(name = "user_roles",
         joinColumns = @JoinColumn(
             name = "user_id",
@@ -78,10 +81,17 @@ public class User extends AbstractBaseEntity {
     @Builder.Default
     private List<Role> roles = new ArrayList<>();
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    /**
+     * Token of the pending e-mail verification mail, it is set when the token is created and never loaded with the
+     * user. The token side owns the association.
+     */
+    @Transient
     private EmailVerificationToken emailVerificationToken;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    /**
+     * Token of the pending password reset mail, it is set when the token is created and never loaded with the user.
+     */
+    @Transient
     private PasswordResetToken passwordResetToken;
 
     @Column(name = "email_verified_at")
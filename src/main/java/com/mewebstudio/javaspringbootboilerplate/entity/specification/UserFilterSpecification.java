@@ -3,37 +3,80 @@ package com.mewebstudio.javaspringbootboilerplate.entity.specification;
 import com.mewebstudio.javaspringbootboilerplate.entity.Role;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
+import com.mewebstudio.javaspringbootboilerplate.util.PageCursor;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
-@RequiredArgsConstructor
 public final class UserFilterSpecification implements Specification<User> {
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+        "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
+
+    private static final List<String> SEARCH_COLUMNS = List.of("email", "name", "lastName");
+
     private final UserCriteria criteria;
 
+    private final PageCursor cursor;
+
+    /**
+     * User filter specification constructor.
+     *
+     * @param criteria UserCriteria
+     */
+    public UserFilterSpecification(final UserCriteria criteria) {
+        this(criteria, null);
+    }
+
+    /**
+     * User filter specification constructor with a keyset seek predicate, only rows after the cursor match.
+     *
+     * @param criteria UserCriteria
+     * @param cursor   PageCursor
+     */
+    public UserFilterSpecification(final UserCriteria criteria, final PageCursor cursor) {
+        this.criteria = criteria;
+        this.cursor = cursor;
+    }
+
     @Override
     public Predicate toPredicate(@NonNull final Root<User> root,
                                  @NonNull final CriteriaQuery<?> query,
                                  @NonNull final CriteriaBuilder builder) {
-        if (criteria == null) {
+        if (criteria == null && cursor == null) {
             return null;
         }
 
         List<Predicate> predicates = new ArrayList<>();
 
+        if (cursor != null) {
+            predicates.add(seek(root, builder));
+        }
+
+        if (criteria == null) {
+            return builder.and(predicates.toArray(new Predicate[0]));
+        }
+
         if (criteria.getRoles() != null && !criteria.getRoles().isEmpty()) {
-            Join<User, Role> roleJoin = root.join("roles");
-            predicates.add(
-                builder.in(roleJoin.get("name")).value(criteria.getRoles())
-            );
+            Subquery<Integer> roleQuery = query.subquery(Integer.class);
+            Join<User, Role> roleJoin = roleQuery.correlate(root).join("roles");
+            roleQuery.select(builder.literal(1))
+                .where(builder.in(roleJoin.get("name")).value(criteria.getRoles()));
+            predicates.add(builder.exists(roleQuery));
         }
 
         if (criteria.getIsAvatar() != null) {
@@ -65,22 +108,97 @@ public final class UserFilterSpecification implements Specification<User> {
         }
 
         if (criteria.getQ() != null) {
-            String q = String.format("%%%s%%", criteria.getQ().toLowerCase());
-
-            predicates.add(
-                builder.or(
-                    builder.like(builder.lower(root.get("id").as(String.class)), q),
-                    builder.like(builder.lower(root.get("email")), q),
-                    builder.like(builder.lower(root.get("name")), q),
-                    builder.like(builder.lower(root.get("lastName")), q)
-                )
-            );
+            predicates.add(search(root, query, builder, criteria.getQ().trim().toLowerCase(),
+                Boolean.TRUE.equals(criteria.getSortByRelevance())));
         }
 
         if (!predicates.isEmpty()) {
             query.where(predicates.toArray(new Predicate[0]));
         }
 
-        return query.distinct(true).getRestriction();
+        return query.getRestriction();
+    }
+
+    /**
+     * Search predicate. A keyword that is a UUID is looked up by the primary key, any other keyword is matched with
+     * {@code lower(column) LIKE '%q%'} on the columns backed by the pg_trgm GIN indexes, optionally ranked by the best
+     * trigram similarity.
+     *
+     * @param root      Root
+     * @param query     CriteriaQuery
+     * @param builder   CriteriaBuilder
+     * @param q         String lower case keyword
+     * @param relevance boolean order by relevance
+     * @return Predicate
+     */
+    private Predicate search(final Root<User> root,
+                             final CriteriaQuery<?> query,
+                             final CriteriaBuilder builder,
+                             final String q,
+                             final boolean relevance) {
+        if (UUID_PATTERN.matcher(q).matches()) {
+            return builder.equal(root.get("id"), UUID.fromString(q));
+        }
+
+        List<Expression<String>> columns = SEARCH_COLUMNS.stream()
+            .map(column -> builder.lower(root.get(column)))
+            .toList();
+
+        if (relevance) {
+            Expression<String> keyword = builder.literal(q);
+            query.orderBy(
+                builder.desc(builder.function("greatest", Double.class, columns.stream()
+                    .map(column -> builder.function("similarity", Double.class, column, keyword))
+                    .toArray(Expression[]::new))),
+                builder.asc(root.get("id"))
+            );
+        }
+
+        String pattern = String.format("%%%s%%", q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_"));
+
+        return builder.or(columns.stream()
+            .map(column -> builder.like(column, pattern, '\\'))
+            .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Keyset seek predicate, {@code (sortBy, id)} is after the cursor in the cursor direction.
+     *
+     * @param root    Root
+     * @param builder CriteriaBuilder
+     * @return Predicate
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(final Root<User> root, final CriteriaBuilder builder) {
+        boolean ascending = cursor.getDirection().isAscending();
+        Path<UUID> id = root.get("id");
+        Predicate afterId = ascending ? builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId());
+        if ("id".equals(cursor.getSortBy())) {
+            return afterId;
+        }
+
+        Path<Comparable> path = root.get(cursor.getSortBy());
+        Comparable value = parseValue(path.getJavaType(), cursor.getValue());
+
+        return builder.or(
+            ascending ? builder.greaterThan(path, value) : builder.lessThan(path, value),
+            builder.and(builder.equal(path, value), afterId)
+        );
+    }
+
+    private static Comparable<?> parseValue(final Class<?> type, final String value) {
+        try {
+            if (LocalDateTime.class.equals(type)) {
+                return LocalDateTime.parse(value);
+            }
+
+            if (UUID.class.equals(type)) {
+                return UUID.fromString(value);
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new BadRequestException("Cursor is not valid!");
+        }
+
+        return value;
     }
 }
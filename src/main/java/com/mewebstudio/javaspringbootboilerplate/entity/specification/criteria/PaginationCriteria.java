@@ -1,5 +1,6 @@
 package com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria;
 
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,10 @@ public final class PaginationCriteria {
     private String sort;
 
     private String[] columns;
+
+    private String cursor;
+
+    private Boolean withTotal;
+
+    private Constants.CountModeEnum countMode;
 }
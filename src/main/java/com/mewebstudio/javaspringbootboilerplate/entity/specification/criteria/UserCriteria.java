@@ -27,4 +27,6 @@ public final class UserCriteria {
     private Boolean isBlocked;
 
     private String q;
+
+    private Boolean sortByRelevance;
 }
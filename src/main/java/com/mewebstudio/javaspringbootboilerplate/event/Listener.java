@@ -1,28 +1,39 @@
 package com.mewebstudio.javaspringbootboilerplate.event;
 
-import com.mewebstudio.javaspringbootboilerplate.service.MailSenderService;
+import com.mewebstudio.javaspringbootboilerplate.service.MailOutboxService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class Listener {
-    private final MailSenderService mailSenderService;
+    private final MailOutboxService mailOutboxService;
 
-    @EventListener(UserEmailVerificationSendEvent.class)
+    private final UserService userService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void onUserEmailVerificationSendEvent(UserEmailVerificationSendEvent event) {
         log.info("[User e-mail verification mail send event listener] {} - {}",
             event.getUser().getEmail(), event.getUser().getId());
-        mailSenderService.sendUserEmailVerification(event.getUser());
+        mailOutboxService.enqueueUserEmailVerification(event.getUser());
     }
 
-    @EventListener(UserPasswordResetSendEvent.class)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void onUserPasswordResetSendEvent(UserPasswordResetSendEvent event) {
         log.info("[User password reset mail send event listener] {} - {}",
             event.getUser().getEmail(), event.getUser().getId());
-        mailSenderService.sendUserPasswordReset(event.getUser());
+        mailOutboxService.enqueueUserPasswordReset(event.getUser());
+    }
+
+    @EventListener
+    public void onUserPasswordUpgradeEvent(UserPasswordUpgradeEvent event) {
+        log.info("[User password upgrade event listener] {}", event.getUserId());
+        userService.upgradePassword(event.getUserId(), event.getPassword(), event.getPreviousPassword());
     }
 }
@@ -0,0 +1,22 @@
+package com.mewebstudio.javaspringbootboilerplate.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.UUID;
+
+@Getter
+public class UserPasswordUpgradeEvent extends ApplicationEvent {
+    private final UUID userId;
+
+    private final String password;
+
+    private final String previousPassword;
+
+    public UserPasswordUpgradeEvent(Object source, UUID userId, String password, String previousPassword) {
+        super(source);
+        this.userId = userId;
+        this.password = password;
+        this.previousPassword = previousPassword;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mewebstudio.javaspringbootboilerplate.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfter;
+
+    public ServiceUnavailableException(final long retryAfter) {
+        this("Service unavailable!", retryAfter);
+    }
+
+    public ServiceUnavailableException(final String message, final long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
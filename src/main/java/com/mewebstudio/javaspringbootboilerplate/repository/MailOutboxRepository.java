@@ -0,0 +1,75 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    /**
+     * Lock a batch of mails that are due, skipping the rows locked by another dispatcher. Processing rows are
+     * included, their lease has run out when the dispatcher that claimed them stopped.
+     *
+     * @param now   LocalDateTime
+     * @param limit int
+     * @return List of MailOutbox
+     */
+    @Query(value = "SELECT * FROM mail_outbox WHERE status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= :now "
+        + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock the mails of a batch that are still leased to the dispatcher that claimed them. Mails whose lease ran out
+     * and that were claimed again by another dispatcher do not match.
+     *
+     * @param ids        Collection of mail ids
+     * @param processing MailOutboxStatusEnum status of the claimed mails
+     * @param leaseUntil LocalDateTime lease of the batch
+     * @return List of MailOutbox
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MailOutbox m WHERE m.id IN :ids AND m.status = :processing AND m.nextAttemptAt = :leaseUntil")
+    List<MailOutbox> findLeasedForUpdate(@Param("ids") Collection<UUID> ids,
+                                         @Param("processing") Constants.MailOutboxStatusEnum processing,
+                                         @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Mark the mails of a batch as sent, as long as they are still leased to the dispatcher that claimed them.
+     *
+     * @param ids        Collection of mail ids
+     * @param processing MailOutboxStatusEnum status of the claimed mails
+     * @param leaseUntil LocalDateTime lease of the batch
+     * @param status     MailOutboxStatusEnum
+     * @param sentAt     LocalDateTime
+     * @return int number of marked mails
+     */
+    @Modifying
+    @Query("UPDATE MailOutbox m SET m.status = :status, m.sentAt = :sentAt, m.attempts = m.attempts + 1, "
+        + "m.lastError = null WHERE m.id IN :ids AND m.status = :processing AND m.nextAttemptAt = :leaseUntil")
+    int markSent(@Param("ids") Collection<UUID> ids,
+                 @Param("processing") Constants.MailOutboxStatusEnum processing,
+                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                 @Param("status") Constants.MailOutboxStatusEnum status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Delete the mails with the given status that were sent before the given time.
+     *
+     * @param status MailOutboxStatusEnum
+     * @param before LocalDateTime
+     * @return int number of deleted mails
+     */
+    @Modifying
+    @Query("DELETE FROM MailOutbox m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") Constants.MailOutboxStatusEnum status,
+                         @Param("before") LocalDateTime before);
+}
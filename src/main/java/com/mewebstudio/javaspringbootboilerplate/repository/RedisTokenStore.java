@@ -0,0 +1,150 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.mewebstudio.javaspringbootboilerplate.util.TokenDigest.sha256;
+
+/**
+ * Redis token store. A session is kept as one compact hash under the SHA-256 digest of each of its tokens
+ * ({@code jwt:session:<digest>}), so a lookup reads exactly the key it is given and raw tokens are never stored.
+ * Every user has a sorted set of the refresh token digests scored by their expiration time ({@code jwt:user:<userId>}).
+ * All keys of a session share its TTL and the per-user set is pruned on every write, so an expired session does not
+ * leave index entries behind. Every operation is a single call, i.e. one round trip, and the scripts declare every
+ * key they touch in {@code KEYS}.
+ */
+@Repository
+@RequiredArgsConstructor
+@SuppressWarnings("rawtypes")
+public class RedisTokenStore implements TokenStore {
+    static final String SESSION_PREFIX = "jwt:session:";
+
+    static final String USER_PREFIX = "jwt:user:";
+
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+        for i = 1, 2 do
+            redis.call('HSET', KEYS[i], unpack(ARGV, 4))
+            redis.call('PEXPIRE', KEYS[i], ARGV[1])
+        end
+        redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[2])
+        redis.call('ZADD', KEYS[3], tonumber(ARGV[2]) + tonumber(ARGV[1]), ARGV[3])
+        if redis.call('PTTL', KEYS[3]) < tonumber(ARGV[1]) then
+            redis.call('PEXPIRE', KEYS[3], ARGV[1])
+        end
+        return 1
+        """, Long.class);
+
+    private static final RedisScript<List> FIND_BY_USER_AND_REFRESH_TOKEN_SCRIPT = new DefaultRedisScript<>("""
+        local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+        if not score or tonumber(score) <= tonumber(ARGV[2]) then
+            return nil
+        end
+        return redis.call('HGETALL', KEYS[2])
+        """, List.class);
+
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('ZREM', KEYS[3], ARGV[1])
+        return redis.call('DEL', KEYS[1], KEYS[2])
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public Optional<JwtToken> findByTokenOrRefreshToken(final String token) {
+        Map<String, String> fields = new HashMap<>();
+        stringRedisTemplate.opsForHash().entries(SESSION_PREFIX + sha256(token))
+            .forEach((field, value) -> fields.put(String.valueOf(field), String.valueOf(value)));
+
+        return toJwtToken(fields);
+    }
+
+    @Override
+    public Optional<JwtToken> findByUserIdAndRefreshToken(final UUID userId, final String refreshToken) {
+        String digest = sha256(refreshToken);
+        List<?> result = stringRedisTemplate.execute(FIND_BY_USER_AND_REFRESH_TOKEN_SCRIPT,
+            List.of(USER_PREFIX + userId, SESSION_PREFIX + digest), digest, String.valueOf(System.currentTimeMillis()));
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; result != null && i + 1 < result.size(); i += 2) {
+            fields.put(String.valueOf(result.get(i)), String.valueOf(result.get(i + 1)));
+        }
+
+        return toJwtToken(fields).filter(jwtToken -> userId.equals(jwtToken.getUserId()));
+    }
+
+    @Override
+    public void save(final JwtToken jwtToken) {
+        if (jwtToken.getId() == null) {
+            jwtToken.setId(UUID.randomUUID());
+        }
+
+        stringRedisTemplate.execute(SAVE_SCRIPT, keys(jwtToken),
+            String.valueOf(jwtToken.getTokenTimeToLive()),
+            String.valueOf(System.currentTimeMillis()),
+            jwtToken.getRefreshTokenDigest(),
+            "id", jwtToken.getId().toString(),
+            "u", jwtToken.getUserId().toString(),
+            "t", jwtToken.getTokenDigest(),
+            "r", jwtToken.getRefreshTokenDigest(),
+            "m", String.valueOf(Boolean.TRUE.equals(jwtToken.getRememberMe())),
+            "ip", nullToEmpty(jwtToken.getIpAddress()),
+            "ua", nullToEmpty(jwtToken.getUserAgent()),
+            "ttl", String.valueOf(jwtToken.getTokenTimeToLive()));
+    }
+
+    @Override
+    public void delete(final JwtToken jwtToken) {
+        stringRedisTemplate.execute(DELETE_SCRIPT, keys(jwtToken), jwtToken.getRefreshTokenDigest());
+    }
+
+    /**
+     * Access token session, refresh token session and user keys of a session, in the order the scripts expect them.
+     *
+     * @param jwtToken JwtToken
+     * @return List
+     */
+    private List<String> keys(final JwtToken jwtToken) {
+        return List.of(
+            SESSION_PREFIX + jwtToken.getTokenDigest(),
+            SESSION_PREFIX + jwtToken.getRefreshTokenDigest(),
+            USER_PREFIX + jwtToken.getUserId()
+        );
+    }
+
+    /**
+     * Map the session hash to a JwtToken. The token fields are left empty, only their digests are stored.
+     *
+     * @param fields Map
+     * @return Optional of JwtToken, empty when the session is missing
+     */
+    private Optional<JwtToken> toJwtToken(final Map<String, String> fields) {
+        if (!fields.containsKey("id")) {
+            return Optional.empty();
+        }
+
+        return Optional.of(JwtToken.builder()
+            .id(UUID.fromString(fields.get("id")))
+            .userId(UUID.fromString(fields.get("u")))
+            .tokenDigest(fields.get("t"))
+            .refreshTokenDigest(fields.get("r"))
+            .rememberMe(Boolean.parseBoolean(fields.get("m")))
+            .ipAddress(fields.get("ip"))
+            .userAgent(fields.get("ua"))
+            .tokenTimeToLive(Long.valueOf(fields.get("ttl")))
+            .build());
+    }
+
+    private static String nullToEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TokenStore {
+    Optional<JwtToken> findByTokenOrRefreshToken(String token);
+
+    Optional<JwtToken> findByUserIdAndRefreshToken(UUID userId, String refreshToken);
+
+    void save(JwtToken jwtToken);
+
+    void delete(JwtToken jwtToken);
+}
@@ -0,0 +1,33 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+    /**
+     * Find users matching the specification with a row limit and without a count query.
+     *
+     * @param specification Specification
+     * @param sort          Sort
+     * @param offset        long number of rows to skip
+     * @param limit         int
+     * @return List of User
+     */
+    List<User> findAll(Specification<User> specification, Sort sort, long offset, int limit);
+
+    /**
+     * Stream users matching the specification over a server side cursor, in chunks of the fetch size. The users are
+     * detached copies with their scalar fields and roles, the persistence context is cleared after every chunk.
+     * Must be called in a transaction.
+     *
+     * @param specification Specification
+     * @param sort          Sort
+     * @param fetchSize     int rows fetched per round trip and chunk size
+     * @param consumer      Consumer of a chunk
+     */
+    void forEachChunk(Specification<User> specification, Sort sort, int fetchSize, Consumer<List<User>> consumer);
+}
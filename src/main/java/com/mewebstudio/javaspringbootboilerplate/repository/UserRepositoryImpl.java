@@ -0,0 +1,142 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private static final String[] EXPORT_COLUMNS = {"id", "email", "name", "lastName", "emailVerifiedAt", "blockedAt",
+        "createdAt", "updatedAt"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findAll(final Specification<User> specification,
+                              final Sort sort,
+                              final long offset,
+                              final int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = builder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        applySort(query, root, builder, sort);
+
+        return entityManager.createQuery(query)
+            .setFirstResult(Math.toIntExact(offset))
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public void forEachChunk(final Specification<User> specification,
+                             final Sort sort,
+                             final int fetchSize,
+                             final Consumer<List<User>> consumer) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<User> root = query.from(User.class);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(Stream.of(EXPORT_COLUMNS).<Selection<?>>map(root::get).toList());
+        applySort(query, root, builder, sort);
+
+        try (Stream<Tuple> rows = entityManager.createQuery(query)
+            .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(AvailableHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+            Map<UUID, User> chunk = new LinkedHashMap<>();
+            Iterator<Tuple> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                User user = toUser(iterator.next());
+                chunk.put(user.getId(), user);
+                if (chunk.size() == fetchSize) {
+                    acceptChunk(chunk, consumer);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                acceptChunk(chunk, consumer);
+            }
+        }
+    }
+
+    /**
+     * Load the roles of a chunk with one query, hand it to the consumer and release it.
+     *
+     * @param chunk    Map of user id to user
+     * @param consumer Consumer of a chunk
+     */
+    private void acceptChunk(final Map<UUID, User> chunk, final Consumer<List<User>> consumer) {
+        entityManager.createQuery("SELECT u.id, r FROM User u JOIN u.roles r WHERE u.id IN :ids", Object[].class)
+            .setParameter("ids", chunk.keySet())
+            .setHint(AvailableHints.HINT_READ_ONLY, true)
+            .getResultList()
+            .forEach(row -> chunk.get((UUID) row[0]).getRoles().add((Role) row[1]));
+
+        consumer.accept(new ArrayList<>(chunk.values()));
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Order the query by the sort. An unsorted sort keeps the order the specification may have set, e.g. the search
+     * relevance.
+     *
+     * @param query   CriteriaQuery
+     * @param root    Root
+     * @param builder CriteriaBuilder
+     * @param sort    Sort
+     */
+    private static void applySort(final CriteriaQuery<?> query,
+                                  final Root<User> root,
+                                  final CriteriaBuilder builder,
+                                  final Sort sort) {
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+    }
+
+    private static User toUser(final Tuple tuple) {
+        User user = new User();
+        user.setId(tuple.get(0, UUID.class));
+        user.setEmail(tuple.get(1, String.class));
+        user.setName(tuple.get(2, String.class));
+        user.setLastName(tuple.get(3, String.class));
+        user.setEmailVerifiedAt(tuple.get(4, LocalDateTime.class));
+        user.setBlockedAt(tuple.get(5, LocalDateTime.class));
+        user.setCreatedAt(tuple.get(6, LocalDateTime.class));
+        user.setUpdatedAt(tuple.get(7, LocalDateTime.class));
+        user.setRoles(new ArrayList<>());
+
+        return user;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled access log, ordered first so rejected requests are seen too. A share of the requests, and every server
+ * error, is handed to a single writer thread over a bounded queue, so request threads never wait on the log appender.
+ * Entries that do not fit are dropped and counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile("!mvcIT")
+@Slf4j(topic = "access")
+public class AccessLogFilter extends OncePerRequestFilter {
+    private static final int SERVER_ERROR = 500;
+
+    private final double sampleRate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Counter dropped;
+
+    /**
+     * Access log filter constructor.
+     *
+     * @param sampleRate    double share of the requests that are logged, between 0 and 1
+     * @param queueCapacity int entries waiting for the writer before new ones are dropped
+     * @param meterRegistry MeterRegistry
+     */
+    public AccessLogFilter(
+        @Value("${app.access-log.sample-rate}") final double sampleRate,
+        @Value("${app.access-log.queue-capacity}") final int queueCapacity,
+        final MeterRegistry meterRegistry
+    ) {
+        this.sampleRate = sampleRate;
+        this.dropped = Counter.builder("http.access_log.dropped").description("Dropped access log entries")
+            .register(meterRegistry);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(1);
+        this.executor.setMaxPoolSize(1);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("access-log-");
+        this.executor.setRejectedExecutionHandler((task, pool) -> dropped.increment());
+        this.executor.initialize();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        if (!log.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        // An exception escaping the chain is answered with a server error, the response does not carry it yet
+        int status = SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            if (status >= SERVER_ERROR || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                String method = request.getMethod();
+                String uri = request.getRequestURI();
+                String remoteAddr = request.getRemoteAddr();
+                int logged = status;
+                executor.execute(() -> write(method, uri, logged, elapsed, remoteAddr));
+            }
+        }
+    }
+
+    /**
+     * Write an access log entry, called on the writer thread.
+     *
+     * @param method     String HTTP method
+     * @param uri        String request URI
+     * @param status     int response status
+     * @param elapsed    long milliseconds spent in the chain
+     * @param remoteAddr String client address
+     */
+    protected void write(final String method, final String uri, final int status, final long elapsed,
+                         final String remoteAddr) {
+        log.info("{} {} {} {}ms {}", method, uri, status, elapsed, remoteAddr);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authorities compiled into a bit mask, one bit per role. A principal satisfies a requirement when the masks share a
+ * bit, so the check is a single AND.
+ */
+public final class AuthorityMask {
+    private AuthorityMask() {
+    }
+
+    /**
+     * Mask of the granted authorities. Authorities that are not roles are ignored.
+     *
+     * @param authorities Collection of GrantedAuthority
+     * @return long
+     */
+    public static long of(final Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0;
+        if (authorities != null) {
+            for (GrantedAuthority authority : authorities) {
+                mask |= bit(authority.getAuthority());
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Mask of the role names. Unknown names add no bit, so a requirement of only unknown roles is never satisfied.
+     *
+     * @param roles String[]
+     * @return long
+     */
+    public static long of(final String... roles) {
+        long mask = 0;
+        for (String role : roles) {
+            mask |= bit(role);
+        }
+
+        return mask;
+    }
+
+    /**
+     * Bit of a role.
+     *
+     * @param role Constants.RoleEnum
+     * @return long
+     */
+    public static long of(final Constants.RoleEnum role) {
+        return 1L << role.ordinal();
+    }
+
+    private static long bit(final String name) {
+        if (name == null) {
+            return 0;
+        }
+
+        try {
+            return of(Constants.RoleEnum.get(name));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encoder that runs the delegate on a dedicated pool sized to the cores. Hashing is CPU bound, so a burst of
+ * logins waits in a bounded queue instead of keeping every request thread busy with hash rounds. When the queue is
+ * full the caller fails fast with ServiceUnavailableException.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private static final String METRIC_NAME = "password.hashing";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final long retryAfter;
+
+    private final Timer waitTimer;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    /**
+     * Bounded password encoder constructor.
+     *
+     * @param delegate      PasswordEncoder that hashes the passwords
+     * @param poolSize      int number of passwords hashed at the same time
+     * @param queueCapacity int number of passwords waiting for a free thread
+     * @param retryAfter    long seconds the client is asked to wait when the queue is full
+     * @param meterRegistry MeterRegistry
+     */
+    public BoundedPasswordEncoder(
+        final PasswordEncoder delegate,
+        final int poolSize,
+        final int queueCapacity,
+        final long retryAfter,
+        final MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("password-hash-");
+        this.executor.initialize();
+
+        Gauge.builder(METRIC_NAME + ".queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .description("Passwords waiting for a hashing thread")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_NAME + ".wait")
+            .description("Time a password waited for a hashing thread")
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder(METRIC_NAME).tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_NAME).tag("operation", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+            .description("Passwords rejected because the hashing queue was full")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Password encoder that hashes the passwords, for callers that bound the hashing on their own pool.
+     *
+     * @return PasswordEncoder
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the hashing task on the pool and wait for its result.
+     *
+     * @param timer Timer of the hashing operation
+     * @param task  Callable
+     * @param <T>   result type
+     * @return T
+     */
+    private <T> T submit(final Timer timer, final Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (TaskRejectedException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full, rejecting the request");
+            throw new ServiceUnavailableException(retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
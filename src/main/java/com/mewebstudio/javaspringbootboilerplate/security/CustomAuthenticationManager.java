@@ -1,23 +1,21 @@
 package com.mewebstudio.javaspringbootboilerplate.security;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordUpgradeEvent;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.Objects;
 
 @Component
@@ -30,30 +28,45 @@ public class CustomAuthenticationManager implements AuthenticationManager {
 
     private final MessageSourceService messageSourceService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
-     * Authenticate user.
+     * Authenticate user. A principal that was already resolved by the JWT filter is trusted as is,
+     * so only the credentials login path reads the user from the database, exactly once.
+     * A matching password with an outdated hash is rehashed in the background.
+     * The method is not transactional, the user is loaded in its own short transaction, so no connection is held
+     * while the password waits for a hashing thread.
      *
      * @param authentication Authentication
      */
     @Override
-    @Transactional
     public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+        if (authentication.getPrincipal() instanceof JwtUserDetails jwtUserDetails) {
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(jwtUserDetails,
+                null, jwtUserDetails.getAuthorities());
+            SecurityContextHolder.getContext().setAuthentication(auth);
+
+            return auth;
+        }
+
         User user = userService.findByEmail(authentication.getName());
 
         if (Objects.nonNull(authentication.getCredentials())) {
-            boolean matches = passwordEncoder.matches(authentication.getCredentials().toString(), user.getPassword());
+            String password = authentication.getCredentials().toString();
+            boolean matches = passwordEncoder.matches(password, user.getPassword());
             if (!matches) {
                 log.error("AuthenticationCredentialsNotFoundException occurred for {}", authentication.getName());
                 throw new AuthenticationCredentialsNotFoundException(messageSourceService.get("bad_credentials"));
             }
+
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                eventPublisher.publishEvent(new UserPasswordUpgradeEvent(this, user.getId(), password, user.getPassword()));
+            }
         }
 
-        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-            .map(role -> new SimpleGrantedAuthority(role.getName().name()))
-            .toList();
-        UserDetails userDetails = userService.loadUserByEmail(authentication.getName());
+        JwtUserDetails userDetails = JwtUserDetails.createWithUser(user);
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails,
-            user.getPassword(), authorities);
+            user.getPassword(), userDetails.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(auth);
 
         return auth;
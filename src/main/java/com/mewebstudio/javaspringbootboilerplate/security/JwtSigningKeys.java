@@ -0,0 +1,212 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.util.TokenDigest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 signing keys. Tokens are signed with the active key and carry its id in the {@code kid} header. Public keys of
+ * the previous signing keys are kept for verification and published in the JWKS until the tokens signed with them have
+ * expired, which gives an overlap window for key rotation. The application does not start without a configured key
+ * unless an ephemeral key is explicitly allowed for development, tokens signed with it do not survive a restart and are
+ * not accepted by other instances.
+ */
+@Component
+@Slf4j
+public class JwtSigningKeys {
+    private static final String CURVE = "secp256r1";
+
+    private static final int COORDINATE_LENGTH = 32;
+
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+
+    @Getter
+    private final String activeKeyId;
+
+    @Getter
+    private final PrivateKey activePrivateKey;
+
+    private final Map<String, PublicKey> publicKeys;
+
+    @Getter
+    private final Map<String, Object> jwks;
+
+    @Getter
+    private final String jwksETag;
+
+    @Getter
+    private final long jwksMaxAge;
+
+    /**
+     * Signing keys constructor.
+     *
+     * @param keyId              String id of the active key
+     * @param privateKey         String base64 PKCS#8 EC private key of the active key
+     * @param publicKey          String base64 X.509 EC public key of the active key
+     * @param previousPublicKeys String comma separated kid:base64 X.509 public keys still accepted for verification
+     * @param jwksMaxAge         Long seconds the JWKS can be cached by clients
+     * @param allowEphemeralKey  boolean generate a key when none is configured, for development only
+     */
+    public JwtSigningKeys(
+        @Value("${app.jwt.signing.key-id}") final String keyId,
+        @Value("${app.jwt.signing.private-key}") final String privateKey,
+        @Value("${app.jwt.signing.public-key}") final String publicKey,
+        @Value("${app.jwt.signing.previous-public-keys}") final String previousPublicKeys,
+        @Value("${app.jwt.signing.jwks-max-age}") final Long jwksMaxAge,
+        @Value("${app.jwt.signing.allow-ephemeral-key}") final boolean allowEphemeralKey
+    ) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        try {
+            if (StringUtils.hasText(privateKey)) {
+                if (!StringUtils.hasText(keyId)) {
+                    throw new IllegalStateException("JWT signing key id must not be blank!");
+                }
+
+                this.activeKeyId = keyId.trim();
+                this.activePrivateKey = KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decode(privateKey)));
+                PublicKey activePublicKey = parsePublicKey(publicKey);
+                if (!isKeyPair(activePrivateKey, activePublicKey)) {
+                    throw new IllegalStateException("JWT signing public key does not match the private key!");
+                }
+                keys.put(activeKeyId, activePublicKey);
+            } else {
+                if (!allowEphemeralKey) {
+                    throw new IllegalStateException("JWT signing key is not configured! Set app.jwt.signing.private-key, "
+                        + "or app.jwt.signing.allow-ephemeral-key for development.");
+                }
+
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec(CURVE));
+                KeyPair keyPair = generator.generateKeyPair();
+                this.activeKeyId = UUID.randomUUID().toString();
+                this.activePrivateKey = keyPair.getPrivate();
+                keys.put(activeKeyId, keyPair.getPublic());
+                log.warn("[JWT] No signing key configured, generated an ephemeral key: {}", activeKeyId);
+            }
+
+            if (StringUtils.hasText(previousPublicKeys)) {
+                for (String entry : previousPublicKeys.split(",")) {
+                    String[] parts = entry.trim().split(":", 2);
+                    if (!StringUtils.hasText(parts[0])) {
+                        throw new IllegalStateException("JWT previous public key id must not be blank!");
+                    }
+                    keys.putIfAbsent(parts[0], parsePublicKey(parts[1]));
+                }
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalStateException("JWT signing keys could not be loaded!", e);
+        }
+
+        this.publicKeys = Collections.unmodifiableMap(keys);
+        this.jwks = buildJwks(keys);
+        this.jwksETag = "\"" + TokenDigest.sha256(jwks.toString()) + "\"";
+        this.jwksMaxAge = jwksMaxAge;
+    }
+
+    /**
+     * Get the public key to verify a token signed with the given key id.
+     *
+     * @param keyId String
+     * @return PublicKey or null when the key is unknown
+     */
+    public PublicKey getPublicKey(final String keyId) {
+        return publicKeys.get(keyId);
+    }
+
+    /**
+     * Get the public key of the active key.
+     *
+     * @return PublicKey
+     */
+    public PublicKey getActivePublicKey() {
+        return publicKeys.get(activeKeyId);
+    }
+
+    /**
+     * Whether the public key verifies a signature of the private key.
+     *
+     * @param privateKey PrivateKey
+     * @param publicKey  PublicKey
+     * @return boolean
+     * @throws GeneralSecurityException when a key can not be used for ES256
+     */
+    private static boolean isKeyPair(final PrivateKey privateKey, final PublicKey publicKey)
+        throws GeneralSecurityException {
+        byte[] probe = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        Signature signer = Signature.getInstance(SIGNATURE_ALGORITHM);
+        signer.initSign(privateKey);
+        signer.update(probe);
+        byte[] signature = signer.sign();
+
+        Signature verifier = Signature.getInstance(SIGNATURE_ALGORITHM);
+        verifier.initVerify(publicKey);
+        verifier.update(probe);
+
+        return verifier.verify(signature);
+    }
+
+    /**
+     * Build the JSON Web Key Set of the verification keys.
+     *
+     * @param keys Map of key id to public key
+     * @return Map
+     */
+    private static Map<String, Object> buildJwks(final Map<String, PublicKey> keys) {
+        List<Map<String, String>> jwkList = new ArrayList<>();
+        keys.forEach((kid, key) -> {
+            ECPublicKey ecPublicKey = (ECPublicKey) key;
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", kid);
+            jwk.put("x", encodeCoordinate(ecPublicKey.getW().getAffineX()));
+            jwk.put("y", encodeCoordinate(ecPublicKey.getW().getAffineY()));
+            jwkList.add(Collections.unmodifiableMap(jwk));
+        });
+
+        return Map.of("keys", Collections.unmodifiableList(jwkList));
+    }
+
+    private static String encodeCoordinate(final BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_LENGTH - length, length);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static PublicKey parsePublicKey(final String value) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(decode(value)));
+    }
+
+    private static byte[] decode(final String value) {
+        return Base64.getMimeDecoder().decode(value.replaceAll("-----[A-Z ]+-----", ""));
+    }
+}
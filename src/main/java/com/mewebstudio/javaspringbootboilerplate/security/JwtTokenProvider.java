@@ -4,25 +4,32 @@ import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserDetailsCacheService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_HEADER;
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_TYPE;
@@ -30,40 +37,74 @@ import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_TYP
 @Component
 @Slf4j
 public class JwtTokenProvider {
+    private static final String CLAIM_EMAIL = "email";
+
+    private static final String CLAIM_ROLES = "roles";
+
+    private static final String CLAIM_EMAIL_VERIFIED = "email_verified";
+
+    private static final String CLAIM_VERSION = "ver";
+
     private final UserService userService;
 
-    private final String appSecret;
+    private final JwtSigningKeys jwtSigningKeys;
+
+    private final JwtParser jwtParser;
 
-    @Getter
-    private final Long tokenExpiresIn;
+    private final TokenPolicy defaultTokenPolicy;
 
-    @Getter
-    private Long refreshTokenExpiresIn;
+    private final TokenPolicy rememberMeTokenPolicy;
 
-    private final Long rememberMeTokenExpiresIn;
+    private final boolean statelessAuthorities;
 
     private final JwtTokenService jwtTokenService;
 
+    private final UserDetailsCacheService userDetailsCacheService;
+
     private final HttpServletRequest httpServletRequest;
 
     public JwtTokenProvider(
-        @Value("${app.secret}") final String appSecret,
+        final JwtSigningKeys jwtSigningKeys,
         @Value("${app.jwt.token.expires-in}") final Long tokenExpiresIn,
         @Value("${app.jwt.refresh-token.expires-in}") final Long refreshTokenExpiresIn,
         @Value("${app.jwt.remember-me.expires-in}") final Long rememberMeTokenExpiresIn,
+        @Value("${app.jwt.stateless-authorities}") final boolean statelessAuthorities,
         final UserService userService,
         final JwtTokenService jwtTokenService,
+        final UserDetailsCacheService userDetailsCacheService,
         final HttpServletRequest httpServletRequest
     ) {
         this.userService = userService;
-        this.appSecret = appSecret;
-        this.tokenExpiresIn = tokenExpiresIn;
-        this.refreshTokenExpiresIn = refreshTokenExpiresIn;
-        this.rememberMeTokenExpiresIn = rememberMeTokenExpiresIn;
+        this.jwtSigningKeys = jwtSigningKeys;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(final JwsHeader header, final Claims claims) {
+                Key key = jwtSigningKeys.getPublicKey(header.getKeyId());
+                if (key == null) {
+                    throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                }
+
+                return key;
+            }
+        }).build();
+        this.defaultTokenPolicy = new TokenPolicy(tokenExpiresIn, refreshTokenExpiresIn, false);
+        this.rememberMeTokenPolicy = new TokenPolicy(tokenExpiresIn, rememberMeTokenExpiresIn, true);
+        this.statelessAuthorities = statelessAuthorities;
         this.jwtTokenService = jwtTokenService;
+        this.userDetailsCacheService = userDetailsCacheService;
         this.httpServletRequest = httpServletRequest;
     }
 
+    /**
+     * Get token policy.
+     *
+     * @param rememberMe boolean
+     * @return TokenPolicy
+     */
+    public TokenPolicy getTokenPolicy(final boolean rememberMe) {
+        return rememberMe ? rememberMeTokenPolicy : defaultTokenPolicy;
+    }
+
     /**
      * Generate token by user ID.
      *
@@ -72,11 +113,25 @@ public class JwtTokenProvider {
      * @return String
      */
     public String generateTokenByUserId(final String id, final Long expires) {
+        return generateToken(id, expires, Map.of());
+    }
+
+    /**
+     * Generate token by user ID with additional claims.
+     *
+     * @param id      String
+     * @param expires Long
+     * @param claims  Map of additional claims
+     * @return String
+     */
+    public String generateToken(final String id, final Long expires, final Map<String, Object> claims) {
         String token = Jwts.builder()
+            .addClaims(claims)
             .setSubject(id)
             .setIssuedAt(new Date())
             .setExpiration(getExpireDate(expires))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .setHeaderParam(JwsHeader.KEY_ID, jwtSigningKeys.getActiveKeyId())
+            .signWith(jwtSigningKeys.getActivePrivateKey(), SignatureAlgorithm.ES256)
             .compact();
         log.trace("Token is added to the local cache for userID: {}, ttl: {}", id, expires);
 
@@ -90,7 +145,38 @@ public class JwtTokenProvider {
      * @return String
      */
     public String generateJwt(final String id) {
-        return generateTokenByUserId(id, tokenExpiresIn);
+        return generateTokenByUserId(id, defaultTokenPolicy.tokenExpiresIn());
+    }
+
+    /**
+     * Generate JWT token for user details. In stateless authorities mode the email, roles and the user revision
+     * are embedded, so the token can be authenticated without loading the user.
+     *
+     * @param userDetails JwtUserDetails
+     * @return String
+     */
+    public String generateJwt(final JwtUserDetails userDetails) {
+        return generateJwt(userDetails, defaultTokenPolicy);
+    }
+
+    /**
+     * Generate JWT token for user details with the lifetime of the token policy.
+     *
+     * @param userDetails JwtUserDetails
+     * @param tokenPolicy TokenPolicy
+     * @return String
+     */
+    public String generateJwt(final JwtUserDetails userDetails, final TokenPolicy tokenPolicy) {
+        if (!statelessAuthorities) {
+            return generateTokenByUserId(userDetails.getId(), tokenPolicy.tokenExpiresIn());
+        }
+
+        return generateToken(userDetails.getId(), tokenPolicy.tokenExpiresIn(), Map.of(
+            CLAIM_EMAIL, userDetails.getEmail(),
+            CLAIM_ROLES, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(),
+            CLAIM_EMAIL_VERIFIED, userDetails.isEmailVerified(),
+            CLAIM_VERSION, userDetailsCacheService.getRevision(userDetails.getId())
+        ));
     }
 
     /**
@@ -100,7 +186,18 @@ public class JwtTokenProvider {
      * @return String
      */
     public String generateRefresh(final String id) {
-        return generateTokenByUserId(id, refreshTokenExpiresIn);
+        return generateRefresh(id, defaultTokenPolicy);
+    }
+
+    /**
+     * Generate refresh token by user ID with the lifetime of the token policy.
+     *
+     * @param id          String
+     * @param tokenPolicy TokenPolicy
+     * @return String
+     */
+    public String generateRefresh(final String id, final TokenPolicy tokenPolicy) {
+        return generateTokenByUserId(id, tokenPolicy.refreshTokenExpiresIn());
     }
 
     /**
@@ -120,9 +217,7 @@ public class JwtTokenProvider {
      * @return String
      */
     public String getUserIdFromToken(final String token) {
-        Claims claims = parseToken(token).getBody();
-
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 
     /**
@@ -132,55 +227,91 @@ public class JwtTokenProvider {
      * @return User
      */
     public User getUserFromToken(final String token) {
+        return getUserFromClaims(parseClaims(token));
+    }
+
+    /**
+     * Get user from already verified claims.
+     *
+     * @param claims Claims
+     * @return User
+     */
+    public User getUserFromClaims(final Claims claims) {
         try {
-            return userService.findById(getUserIdFromToken(token));
+            return userService.findById(claims.getSubject());
         } catch (NotFoundException e) {
             return null;
         }
     }
 
     /**
-     * Boolean result of whether token is valid or not.
+     * Build user details from verified claims in stateless authorities mode. The token is only trusted while its
+     * revision matches the current revision of the user, any change made to the user makes it fall back to a lookup.
      *
-     * @param token String token
-     * @return boolean
+     * @param claims Claims
+     * @return JwtUserDetails or null when the user must be loaded
      */
-    public boolean validateToken(final String token) {
-        parseToken(token);
+    public JwtUserDetails getUserDetailsFromClaims(final Claims claims) {
+        if (!statelessAuthorities || !(claims.get(CLAIM_VERSION) instanceof Number version)) {
+            return null;
+        }
+
+        if (version.longValue() != userDetailsCacheService.getRevision(claims.getSubject())) {
+            log.debug("[JWT] Token revision is outdated for user: {}", claims.getSubject());
+            return null;
+        }
+
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+            .toList();
+
+        return JwtUserDetails.create(claims.getSubject(), claims.get(CLAIM_EMAIL, String.class), authorities,
+            Boolean.TRUE.equals(claims.get(CLAIM_EMAIL_VERIFIED, Boolean.class)));
+    }
+
+    /**
+     * Parse the token once, check it against the token store and return its claims.
+     *
+     * @param token String
+     * @return Claims or null when the token is not known by the token store
+     */
+    public Claims getVerifiedClaims(final String token) {
+        Claims claims = parseClaims(token);
 
         try {
-            JwtToken jwtToken = jwtTokenService.findByTokenOrRefreshToken(token);
+            JwtToken jwtToken = jwtTokenService.findByTokenOrRefreshToken(token, claims.getExpiration());
             if (!httpServletRequest.getHeader("User-agent").equals(jwtToken.getUserAgent())) {
                 log.error("[JWT] User-agent is not matched");
-                return false;
+                return null;
             }
         } catch (NotFoundException e) {
             log.error("[JWT] Token could not found in Redis");
-            return false;
+            return null;
         }
 
-        return !isTokenExpired(token);
+        return claims;
     }
 
     /**
-     * Validate token.
+     * Parse and verify the token, reporting failures as request attributes.
      *
      * @param token              String
      * @param httpServletRequest HttpServletRequest
-     * @return boolean
+     * @return Claims or null when the token is not valid
      */
-    public boolean validateToken(final String token, final HttpServletRequest httpServletRequest) {
+    public Claims getVerifiedClaims(final String token, final HttpServletRequest httpServletRequest) {
         try {
-            boolean isTokenValid = validateToken(token);
-            if (!isTokenValid) {
+            Claims claims = getVerifiedClaims(token);
+            if (claims == null) {
                 log.error("[JWT] Token could not found in local cache");
                 httpServletRequest.setAttribute("notfound", "Token is not found in cache");
             }
-            return isTokenValid;
+            return claims;
         } catch (UnsupportedJwtException e) {
             log.error("[JWT] Unsupported JWT token!");
             httpServletRequest.setAttribute("unsupported", "Unsupported JWT token!");
-        } catch (MalformedJwtException e) {
+        } catch (MalformedJwtException | SecurityException e) {
             log.error("[JWT] Invalid JWT token!");
             httpServletRequest.setAttribute("invalid", "Invalid JWT token!");
         } catch (ExpiredJwtException e) {
@@ -191,14 +322,28 @@ public class JwtTokenProvider {
             httpServletRequest.setAttribute("illegal", "JWT claims string is empty.");
         }
 
-        return false;
+        return null;
     }
 
     /**
-     * Set jwt refresh token for remember me option.
+     * Boolean result of whether token is valid or not.
+     *
+     * @param token String token
+     * @return boolean
      */
-    public void setRememberMe() {
-        this.refreshTokenExpiresIn = rememberMeTokenExpiresIn;
+    public boolean validateToken(final String token) {
+        return getVerifiedClaims(token) != null;
+    }
+
+    /**
+     * Validate token.
+     *
+     * @param token              String
+     * @param httpServletRequest HttpServletRequest
+     * @return boolean
+     */
+    public boolean validateToken(final String token, final HttpServletRequest httpServletRequest) {
+        return getVerifiedClaims(token, httpServletRequest) != null;
     }
 
     /**
@@ -226,23 +371,13 @@ public class JwtTokenProvider {
     }
 
     /**
-     * Parsing token.
+     * Parsing token. The parser rejects expired tokens, so a separate expiration check is not needed.
      *
      * @param token String jwt token to parse
-     * @return Jws object
-     */
-    private Jws<Claims> parseToken(final String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-    }
-
-    /**
-     * Check token is expired or not.
-     *
-     * @param token String jwt token to get expiration date
-     * @return True or False
+     * @return Claims
      */
-    private boolean isTokenExpired(final String token) {
-        return parseToken(token).getBody().getExpiration().before(new Date());
+    private Claims parseClaims(final String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -253,13 +388,4 @@ public class JwtTokenProvider {
     private Date getExpireDate(final Long expires) {
         return new Date(new Date().getTime() + expires);
     }
-
-    /**
-     * Get signing key.
-     *
-     * @return Key
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(appSecret.getBytes());
-    }
 }
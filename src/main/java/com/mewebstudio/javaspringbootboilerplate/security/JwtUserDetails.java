@@ -1,7 +1,11 @@
 package com.mewebstudio.javaspringbootboilerplate.security;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,21 +26,43 @@ public final class JwtUserDetails implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    /**
+     * Roles of the authorities as an AuthorityMask, compiled whenever the authorities are set.
+     */
+    @Setter(AccessLevel.NONE)
+    private long authorityMask;
+
+    private boolean blocked;
+
+    private boolean emailVerified;
+
+    /**
+     * User snapshot loaded while authenticating the current request, reused by UserService.getUser().
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient User user;
+
     /**
      * JwtUserDetails constructor.
      *
-     * @param id          String
-     * @param email       String
-     * @param password    String
-     * @param authorities Collection<? extends GrantedAuthority>
+     * @param id            String
+     * @param email         String
+     * @param password      String
+     * @param authorities   Collection<? extends GrantedAuthority>
+     * @param blocked       boolean
+     * @param emailVerified boolean
      */
     private JwtUserDetails(final String id, final String email, final String password,
-                           final Collection<? extends GrantedAuthority> authorities) {
+                           final Collection<? extends GrantedAuthority> authorities,
+                           final boolean blocked, final boolean emailVerified) {
         this.id = id;
         this.email = email;
         this.username = email;
         this.password = password;
-        this.authorities = authorities;
+        setAuthorities(authorities);
+        this.blocked = blocked;
+        this.emailVerified = emailVerified;
     }
 
     /**
@@ -50,7 +76,46 @@ public final class JwtUserDetails implements UserDetails {
             .map(role -> new SimpleGrantedAuthority(role.getName().name()))
             .collect(Collectors.toList());
 
-        return new JwtUserDetails(user.getId().toString(), user.getEmail(), user.getPassword(), authorities);
+        return new JwtUserDetails(user.getId().toString(), user.getEmail(), user.getPassword(), authorities,
+            user.getBlockedAt() != null, user.getEmailVerifiedAt() != null);
+    }
+
+    /**
+     * Create JwtUserDetails from verified token claims, without a password.
+     *
+     * @param id            String
+     * @param email         String
+     * @param authorities   Collection<? extends GrantedAuthority>
+     * @param emailVerified boolean
+     * @return JwtUserDetails
+     */
+    public static JwtUserDetails create(final String id, final String email,
+                                        final Collection<? extends GrantedAuthority> authorities,
+                                        final boolean emailVerified) {
+        return new JwtUserDetails(id, email, null, authorities, false, emailVerified);
+    }
+
+    /**
+     * Create JwtUserDetails from User and keep the user as the request snapshot.
+     *
+     * @param user User
+     * @return JwtUserDetails
+     */
+    public static JwtUserDetails createWithUser(final User user) {
+        JwtUserDetails jwtUserDetails = create(user);
+        jwtUserDetails.setUser(user);
+
+        return jwtUserDetails;
+    }
+
+    /**
+     * Set the authorities and compile their mask.
+     *
+     * @param authorities Collection<? extends GrantedAuthority>
+     */
+    public void setAuthorities(final Collection<? extends GrantedAuthority> authorities) {
+        this.authorities = authorities;
+        this.authorityMask = AuthorityMask.of(authorities);
     }
 
     @Override
@@ -60,7 +125,7 @@ public final class JwtUserDetails implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return !blocked;
     }
 
     @Override
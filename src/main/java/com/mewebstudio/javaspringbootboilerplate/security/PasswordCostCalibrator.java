@@ -0,0 +1,88 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Measures the BCrypt strength that hashes a password in about the target time on the current hardware. The result
+ * is only logged, the strength is applied with app.password.encoder.bcrypt-strength and existing hashes are upgraded
+ * on the next login.
+ */
+@Component
+@Slf4j
+public class PasswordCostCalibrator implements ApplicationRunner {
+    static final int MIN_STRENGTH = 10;
+
+    static final int MAX_STRENGTH = 31;
+
+    private static final int SAMPLES = 3;
+
+    private static final String SAMPLE_PASSWORD = "P@sswd123.";
+
+    private final long target;
+
+    /**
+     * Password cost calibrator constructor.
+     *
+     * @param target long milliseconds a hash should take, 0 disables the calibration
+     */
+    public PasswordCostCalibrator(@Value("${app.password.encoder.calibration-target}") final long target) {
+        this.target = target;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        if (target <= 0) {
+            return;
+        }
+
+        int strength = calibrate(Duration.ofMillis(target), PasswordCostCalibrator::measureBCrypt);
+        log.info("BCrypt strength {} hashes a password within {} ms on this host", strength, target);
+    }
+
+    /**
+     * Find the highest strength whose hash time does not exceed the target. Every step doubles the work, so the search
+     * stops at the first strength over the target.
+     *
+     * @param target    Duration
+     * @param hashNanos IntToLongFunction nanoseconds a hash takes at the given strength
+     * @return int strength, at least MIN_STRENGTH
+     */
+    static int calibrate(final Duration target, final IntToLongFunction hashNanos) {
+        long targetNanos = target.toNanos();
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && hashNanos.applyAsLong(strength + 1) <= targetNanos) {
+            strength++;
+        }
+
+        return strength;
+    }
+
+    /**
+     * Median hash time of a few samples after a warm-up hash.
+     *
+     * @param strength int
+     * @return long nanoseconds
+     */
+    private static long measureBCrypt(final int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        return samples[SAMPLES / 2];
+    }
+}
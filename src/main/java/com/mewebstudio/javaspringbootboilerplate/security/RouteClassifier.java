@@ -0,0 +1,90 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Arrays;
+
+/**
+ * Classifies request paths against the permit-all routes of the security configuration. The patterns are compiled
+ * into plain prefixes once, so a request is classified with string comparisons and without allocating.
+ */
+public final class RouteClassifier {
+    /**
+     * Routes that are open to everyone, as security request matcher patterns.
+     */
+    public static final String[] PUBLIC_PATTERNS = {
+        "/",
+        "/auth/**",
+        "/public/**",
+        "/assets/**",
+        "/api-docs/**",
+        "/swagger-ui/**",
+        "/webjars/**"
+    };
+
+    /**
+     * Open routes that still read the authenticated user, so their token must be resolved.
+     */
+    private static final String[] AUTHENTICATED_PATHS = {"/auth/logout"};
+
+    private static final String WILDCARD = "**";
+
+    private static final String[] PREFIXES = Arrays.stream(PUBLIC_PATTERNS)
+        .filter(pattern -> pattern.endsWith(WILDCARD))
+        .map(pattern -> pattern.substring(0, pattern.length() - WILDCARD.length()))
+        .toArray(String[]::new);
+
+    private static final String[] EXACT_PATHS = Arrays.stream(PUBLIC_PATTERNS)
+        .filter(pattern -> !pattern.endsWith(WILDCARD))
+        .toArray(String[]::new);
+
+    private RouteClassifier() {
+    }
+
+    /**
+     * Whether the request targets a public route that needs no authentication.
+     *
+     * @param request HttpServletRequest
+     * @return boolean
+     */
+    public static boolean isPublic(final HttpServletRequest request) {
+        String contextPath = request.getContextPath();
+
+        return isPublic(request.getRequestURI(), contextPath == null ? 0 : contextPath.length());
+    }
+
+    /**
+     * Whether the path, starting at the offset, is a public route that needs no authentication.
+     *
+     * @param uri    String request URI
+     * @param offset int length of the context path
+     * @return boolean
+     */
+    public static boolean isPublic(final String uri, final int offset) {
+        if (uri == null) {
+            return false;
+        }
+
+        int length = uri.length() - offset;
+        for (String path : AUTHENTICATED_PATHS) {
+            if (length == path.length() && uri.startsWith(path, offset)) {
+                return false;
+            }
+        }
+
+        for (String path : EXACT_PATHS) {
+            if (length == path.length() && uri.startsWith(path, offset)) {
+                return true;
+            }
+        }
+
+        for (String prefix : PREFIXES) {
+            if (uri.startsWith(prefix, offset)
+                || (length == prefix.length() - 1 && uri.regionMatches(offset, prefix, 0, length))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+/**
+ * Lifetimes of the tokens issued for a single login or refresh. Policies are immutable, so one request can not change
+ * the lifetime of the tokens issued to another.
+ *
+ * @param tokenExpiresIn        long milliseconds the access token is valid for
+ * @param refreshTokenExpiresIn long milliseconds the refresh token is valid for
+ * @param rememberMe            boolean whether the refresh token has the remember me lifetime
+ */
+public record TokenPolicy(long tokenExpiresIn, long refreshTokenExpiresIn, boolean rememberMe) {
+}
@@ -8,6 +8,8 @@ import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.exception.RefreshTokenExpiredException;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import com.mewebstudio.javaspringbootboilerplate.security.TokenPolicy;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -64,7 +66,7 @@ public class AuthService {
             Authentication authentication = authenticationManager.authenticate(authenticationToken);
             JwtUserDetails jwtUserDetails = jwtTokenProvider.getPrincipal(authentication);
 
-            return generateTokens(UUID.fromString(jwtUserDetails.getId()), rememberMe);
+            return generateTokens(jwtUserDetails, rememberMe);
         } catch (NotFoundException e) {
             log.error("Authentication failed for email: {}", email);
             throw new AuthenticationCredentialsNotFoundException(badCredentialsMessage);
@@ -127,48 +129,44 @@ public class AuthService {
     private TokenResponse refresh(final String refreshToken) {
         log.info("Refresh request received: {}", refreshToken);
 
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.getVerifiedClaims(refreshToken);
+        if (claims == null) {
             log.error("Refresh token is expired.");
             throw new RefreshTokenExpiredException();
         }
 
-        User user = jwtTokenProvider.getUserFromToken(refreshToken);
+        User user = jwtTokenProvider.getUserFromClaims(claims);
         JwtToken oldToken = jwtTokenService.findByUserIdAndRefreshToken(user.getId(), refreshToken);
-        if (oldToken != null && oldToken.getRememberMe()) {
-            jwtTokenProvider.setRememberMe();
-        }
-
         boolean rememberMe = false;
         if (oldToken != null) {
-            rememberMe = oldToken.getRememberMe();
+            rememberMe = Boolean.TRUE.equals(oldToken.getRememberMe());
             jwtTokenService.delete(oldToken);
         }
 
-        return generateTokens(user.getId(), rememberMe);
+        return generateTokens(JwtUserDetails.create(user), rememberMe);
     }
 
     /**
      * Generate both access and refresh tokens.
      *
-     * @param id         user identifier to set the subject for token and value for the expiring map
-     * @param rememberMe Boolean option to set the expiration time for refresh token
+     * @param userDetails JwtUserDetails of the user to set the subject and the claims for token
+     * @param rememberMe  Boolean option to set the expiration time for refresh token
      * @return an object of TokenResponse
      */
-    private TokenResponse generateTokens(final UUID id, final Boolean rememberMe) {
-        String token = jwtTokenProvider.generateJwt(id.toString());
-        String refreshToken = jwtTokenProvider.generateRefresh(id.toString());
-        if (rememberMe) {
-            jwtTokenProvider.setRememberMe();
-        }
+    private TokenResponse generateTokens(final JwtUserDetails userDetails, final Boolean rememberMe) {
+        TokenPolicy tokenPolicy = jwtTokenProvider.getTokenPolicy(Boolean.TRUE.equals(rememberMe));
+        UUID id = UUID.fromString(userDetails.getId());
+        String token = jwtTokenProvider.generateJwt(userDetails, tokenPolicy);
+        String refreshToken = jwtTokenProvider.generateRefresh(id.toString(), tokenPolicy);
 
         jwtTokenService.save(JwtToken.builder()
             .userId(id)
             .token(token)
             .refreshToken(refreshToken)
-            .rememberMe(rememberMe)
+            .rememberMe(tokenPolicy.rememberMe())
             .ipAddress(httpServletRequest.getRemoteAddr())
             .userAgent(httpServletRequest.getHeader("User-Agent"))
-            .tokenTimeToLive(jwtTokenProvider.getRefreshTokenExpiresIn())
+            .tokenTimeToLive(tokenPolicy.refreshTokenExpiresIn())
             .build());
         log.info("Token generated for user: {}", id);
 
@@ -177,8 +175,8 @@ public class AuthService {
             .refreshToken(refreshToken)
             .expiresIn(
                 TokenExpiresInResponse.builder()
-                    .token(jwtTokenProvider.getTokenExpiresIn())
-                    .refreshToken(jwtTokenProvider.getRefreshTokenExpiresIn())
+                    .token(tokenPolicy.tokenExpiresIn())
+                    .refreshToken(tokenPolicy.refreshTokenExpiresIn())
                     .build()
             )
             .build();
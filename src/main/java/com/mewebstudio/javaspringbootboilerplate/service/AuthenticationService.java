@@ -1,12 +1,12 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
+import com.mewebstudio.javaspringbootboilerplate.security.AuthorityMask;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -24,24 +24,27 @@ public class AuthenticationService {
      * @throws AccessDeniedException -- if user does not have required roles
      */
     public boolean isAuthorized(final String... aInRoles) throws AccessDeniedException {
-        JwtUserDetails jwtUserDetails = getPrincipal();
-        if (jwtUserDetails == null) {
+        if (aInRoles == null) {
             throw new AccessDeniedException(messageSourceService.get("access_denied"));
         }
 
-        try {
-            for (String role : aInRoles) {
-                for (GrantedAuthority authority : jwtUserDetails.getAuthorities()) {
-                    if (authority.getAuthority().equalsIgnoreCase(role)) {
-                        return true;
-                    }
-                }
-            }
-        } catch (Exception e) {
+        return isAuthorized(AuthorityMask.of(aInRoles));
+    }
+
+    /**
+     * Whether the user in the security context has one of the roles of a compiled requirement.
+     *
+     * @param requiredMask -- AuthorityMask of the roles, one of them is enough
+     * @return boolean
+     * @throws AccessDeniedException -- if there is no user in the security context
+     */
+    public boolean isAuthorized(final long requiredMask) throws AccessDeniedException {
+        JwtUserDetails jwtUserDetails = getPrincipal();
+        if (jwtUserDetails == null) {
             throw new AccessDeniedException(messageSourceService.get("access_denied"));
         }
 
-        return false;
+        return (jwtUserDetails.getAuthorityMask() & requiredMask) != 0;
     }
 
     /**
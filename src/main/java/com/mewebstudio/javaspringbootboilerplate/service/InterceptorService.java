@@ -1,5 +1,6 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
+import com.mewebstudio.javaspringbootboilerplate.security.AuthorityMask;
 import com.mewebstudio.javaspringbootboilerplate.security.Authorize;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -7,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.NonNull;
@@ -18,12 +21,18 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import java.lang.reflect.Method;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
@@ -32,6 +41,11 @@ import java.util.List;
 public class InterceptorService implements HandlerInterceptor {
     private final AuthenticationService authenticationService;
 
+    /**
+     * Precomputed metadata per handler method, filled for every mapped handler when the context is refreshed.
+     */
+    private final Map<Method, HandlerDescriptor> descriptors = new ConcurrentHashMap<>();
+
     /**
      * Interception point before the execution of a handler.
      *
@@ -44,16 +58,13 @@ public class InterceptorService implements HandlerInterceptor {
     public boolean preHandle(@NonNull final HttpServletRequest request,
                              @NonNull final HttpServletResponse response,
                              @NonNull final Object handler) {
-        HandlerMethod handlerMethod;
-        try {
-            handlerMethod = (HandlerMethod) handler;
-        } catch (ClassCastException e) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
             return true;
         }
 
-        validateQueryParams(request, handlerMethod);
-        Authorize authorizeAnnotation = getAuthorizeAnnotation(handlerMethod);
-        if (authorizeAnnotation != null && !hasAnnotationRole(authorizeAnnotation)) {
+        HandlerDescriptor descriptor = describe(handlerMethod);
+        validateQueryParams(request, descriptor);
+        if (descriptor.requirement().isPresent() && !hasAnnotationRole(descriptor.requirement().getAsLong())) {
             log.error("Throwing AccessDeniedException because role is not valid for api");
             throw new AccessDeniedException("You are not allowed to perform this operation");
         }
@@ -62,43 +73,76 @@ public class InterceptorService implements HandlerInterceptor {
     }
 
     /**
-     * Validation of the request params to check unhandled ones.
+     * Build the descriptors of all mapped handler methods, so no request pays for the reflection.
+     *
+     * @param event -- ContextRefreshedEvent
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUp(final ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+            .forEach(mapping -> mapping.getHandlerMethods().values().forEach(this::describe));
+        log.info("[InterceptorService] Described {} handler methods", descriptors.size());
+    }
+
+    /**
+     * Descriptor of a handler method, built on first use when the handler was not mapped at startup.
      *
-     * @param request -- Request information for HTTP servlets.
-     * @param handler -- Encapsulates information about a handler method consisting of a method
+     * @param handlerMethod -- RequestMapping method that reached to server
+     * @return -- HandlerDescriptor
      */
-    private void validateQueryParams(final HttpServletRequest request, final HandlerMethod handler) {
-        List<String> queryParams = Collections.list(request.getParameterNames());
-        MethodParameter[] methodParameters = handler.getMethodParameters();
-        List<String> expectedParams = new ArrayList<>(methodParameters.length);
-
-        boolean hasModelAttribute = Arrays.stream(methodParameters)
-            .anyMatch(methodParameter -> methodParameter.getParameterAnnotation(ModelAttribute.class) != null);
-
-        for (MethodParameter methodParameter : methodParameters) {
-            RequestParam requestParam = methodParameter.getParameterAnnotation(RequestParam.class);
-            if (requestParam != null) {
-                if (StringUtils.hasText(requestParam.name())) {
-                    expectedParams.add(requestParam.name());
-                } else {
-                    methodParameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
-                    expectedParams.add(methodParameter.getParameterName());
+    private HandlerDescriptor describe(final HandlerMethod handlerMethod) {
+        return descriptors.computeIfAbsent(handlerMethod.getMethod(), method -> {
+            MethodParameter[] methodParameters = handlerMethod.getMethodParameters();
+            Set<String> allowedParams = new HashSet<>();
+            boolean hasModelAttribute = false;
+
+            for (MethodParameter methodParameter : methodParameters) {
+                hasModelAttribute |= methodParameter.getParameterAnnotation(ModelAttribute.class) != null;
+                RequestParam requestParam = methodParameter.getParameterAnnotation(RequestParam.class);
+                if (requestParam != null) {
+                    if (StringUtils.hasText(requestParam.name())) {
+                        allowedParams.add(requestParam.name());
+                    } else {
+                        methodParameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+                        allowedParams.add(methodParameter.getParameterName());
+                    }
                 }
             }
 
-            /* TODO: ModelAttribute params check
-            ModelAttribute modelAttribute = methodParameter.getParameterAnnotation(ModelAttribute.class);
-            if (modelAttribute != null) {
-                methodParameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
-                log.info("modelAttribute: {}", methodParameters[1].getParameter().getAnnotatedType().getType());
+            Authorize authorize = getAuthorizeAnnotation(handlerMethod);
+
+            return new HandlerDescriptor(Set.copyOf(allowedParams), hasModelAttribute,
+                authorize == null ? OptionalLong.empty() : OptionalLong.of(AuthorityMask.of(authorize.roles())));
+        });
+    }
+
+    /**
+     * Validation of the request params to check unhandled ones.
+     *
+     * @param request    -- Request information for HTTP servlets.
+     * @param descriptor -- Precomputed metadata of the handler method
+     */
+    private void validateQueryParams(final HttpServletRequest request, final HandlerDescriptor descriptor) {
+        if (descriptor.hasModelAttribute()) {
+            return;
+        }
+
+        List<String> unexpectedParams = null;
+        Enumeration<String> parameterNames = request.getParameterNames();
+        while (parameterNames.hasMoreElements()) {
+            String name = parameterNames.nextElement();
+            if (!descriptor.allowedParams().contains(name)) {
+                if (unexpectedParams == null) {
+                    unexpectedParams = new ArrayList<>();
+                }
+
+                unexpectedParams.add(name);
             }
-            */
         }
 
-        queryParams.removeAll(expectedParams);
-        if (!queryParams.isEmpty() && !hasModelAttribute) {
-            log.error("Unexpected parameters: {}", queryParams);
-            throw new InvalidParameterException("unexpected parameter: " + queryParams);
+        if (unexpectedParams != null) {
+            log.error("Unexpected parameters: {}", unexpectedParams);
+            throw new InvalidParameterException("unexpected parameter: " + unexpectedParams);
         }
     }
 
@@ -123,19 +167,19 @@ public class InterceptorService implements HandlerInterceptor {
     /**
      * Checks the roles of user for defined Authorize annotation.
      *
-     * @param authorize - parameter that has roles
+     * @param requiredMask - compiled roles of the annotation
      * @return -- false if not authorized
      * @throws BadCredentialsException -- throws BadCredentialsException
      * @throws AccessDeniedException   -- throws AccessDeniedException
      */
-    private boolean hasAnnotationRole(final Authorize authorize) throws BadCredentialsException, AccessDeniedException {
+    private boolean hasAnnotationRole(final long requiredMask) throws BadCredentialsException, AccessDeniedException {
         if (authenticationService.getPrincipal() == null) {
             log.error("You have to be authenticated to perform this operation");
             throw new BadCredentialsException("You have to be authenticated to perform this operation");
         }
 
         try {
-            if (!authenticationService.isAuthorized(authorize.roles())) {
+            if (!authenticationService.isAuthorized(requiredMask)) {
                 log.error("Authorization is failed.");
                 return false;
             }
@@ -146,4 +190,14 @@ public class InterceptorService implements HandlerInterceptor {
 
         return true;
     }
+
+    /**
+     * Immutable metadata of a handler method.
+     *
+     * @param allowedParams     -- names of the request params the method binds
+     * @param hasModelAttribute -- whether a model attribute may bind any param
+     * @param requirement       -- AuthorityMask of the Authorize annotation, empty when the method is not guarded
+     */
+    private record HandlerDescriptor(Set<String> allowedParams, boolean hasModelAttribute, OptionalLong requirement) {
+    }
 }
@@ -0,0 +1,128 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import com.mewebstudio.javaspringbootboilerplate.repository.TokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the sessions written by the former Spring Data {@code @RedisHash("jwtTokens")} repository to the token store
+ * and removes the old hashes together with their secondary index keys. Enabled by
+ * {@code app.jwt.store.migrate-legacy-keys}; running it again is a no-op.
+ */
+@Service
+@Slf4j
+public class JwtTokenMigrationService implements CommandLineRunner {
+    private static final String LEGACY_KEYSPACE = "jwtTokens";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final boolean enabled;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final TokenStore tokenStore;
+
+    public JwtTokenMigrationService(
+        @Value("${app.jwt.store.migrate-legacy-keys:false}") final boolean enabled,
+        final StringRedisTemplate stringRedisTemplate,
+        final TokenStore tokenStore
+    ) {
+        this.enabled = enabled;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.tokenStore = tokenStore;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+
+        log.info("Migrating legacy JWT token keys...");
+        int migrated = 0;
+        try (Cursor<String> ids = stringRedisTemplate.opsForSet().scan(LEGACY_KEYSPACE,
+            ScanOptions.scanOptions().count(BATCH_SIZE).build())) {
+            while (ids.hasNext()) {
+                if (migrate(ids.next())) {
+                    migrated++;
+                }
+            }
+        }
+
+        long deleted = deleteLegacyKeys();
+        log.info("Legacy JWT token keys migrated. Sessions: {}, deleted keys: {}", migrated, deleted);
+    }
+
+    /**
+     * Copy a legacy session with its remaining time to live.
+     *
+     * @param id String legacy session id
+     * @return boolean whether the session was still alive and migrated
+     */
+    private boolean migrate(final String id) {
+        String key = LEGACY_KEYSPACE + ":" + id;
+        Long ttl = stringRedisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+        Map<Object, Object> hash = stringRedisTemplate.opsForHash().entries(key);
+        if (ttl == null || ttl <= 0 || hash.isEmpty()) {
+            return false;
+        }
+
+        String rememberMe = (String) hash.get("rememberMe");
+        tokenStore.save(JwtToken.builder()
+            .id(UUID.fromString(id))
+            .userId(UUID.fromString((String) hash.get("userId")))
+            .token((String) hash.get("token"))
+            .refreshToken((String) hash.get("refreshToken"))
+            .rememberMe("1".equals(rememberMe) || Boolean.parseBoolean(rememberMe))
+            .ipAddress((String) hash.get("ipAddress"))
+            .userAgent((String) hash.get("userAgent"))
+            .tokenTimeToLive(ttl)
+            .build());
+
+        return true;
+    }
+
+    /**
+     * Delete the legacy hashes, the id set and the index keys in batches.
+     *
+     * @return long number of deleted keys
+     */
+    private long deleteLegacyKeys() {
+        long deleted = 0;
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        try (Cursor<String> keys = stringRedisTemplate.scan(ScanOptions.scanOptions()
+            .match(LEGACY_KEYSPACE + "*").count(BATCH_SIZE).build())) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == BATCH_SIZE) {
+                    deleted += deleteBatch(batch);
+                }
+            }
+        }
+
+        return deleted + deleteBatch(batch);
+    }
+
+    private long deleteBatch(final List<String> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Long deleted = stringRedisTemplate.delete(batch);
+        batch.clear();
+
+        return deleted == null ? 0 : deleted;
+    }
+}
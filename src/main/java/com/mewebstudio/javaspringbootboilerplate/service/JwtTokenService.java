@@ -2,21 +2,26 @@ package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
-import com.mewebstudio.javaspringbootboilerplate.repository.JwtTokenRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.TokenStore;
+import com.mewebstudio.javaspringbootboilerplate.util.TokenDigest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JwtTokenService {
-    private final JwtTokenRepository jwtTokenRepository;
+    private final TokenStore tokenStore;
 
     private final MessageSourceService messageSourceService;
 
+    private final TokenValidationCacheService tokenValidationCacheService;
+
     /**
      * Find a JWT token by user id and refresh token.
      *
@@ -25,7 +30,7 @@ public class JwtTokenService {
      * @return JwtToken
      */
     public JwtToken findByUserIdAndRefreshToken(UUID id, String refreshToken) {
-        return jwtTokenRepository.findByUserIdAndRefreshToken(id, refreshToken)
+        return tokenStore.findByUserIdAndRefreshToken(id, refreshToken)
             .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
                 new String[]{messageSourceService.get("token")})));
     }
@@ -37,27 +42,46 @@ public class JwtTokenService {
      * @return JwtToken
      */
     public JwtToken findByTokenOrRefreshToken(String token) {
-        return jwtTokenRepository.findByTokenOrRefreshToken(token, token)
+        return tokenStore.findByTokenOrRefreshToken(token)
             .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
                 new String[]{messageSourceService.get("token")})));
     }
 
+    /**
+     * Find a JWT token by token or refresh token through the local validation cache.
+     *
+     * @param token     String
+     * @param expiresAt Date expiration of the token
+     * @return JwtToken
+     */
+    public JwtToken findByTokenOrRefreshToken(String token, Date expiresAt) {
+        String digest = TokenDigest.sha256(token);
+        JwtToken jwtToken = tokenValidationCacheService.get(digest);
+        if (jwtToken == null) {
+            jwtToken = findByTokenOrRefreshToken(token);
+            tokenValidationCacheService.put(digest, jwtToken, expiresAt.getTime());
+        }
+
+        return jwtToken;
+    }
+
     /**
      * Save a JWT token.
      *
      * @param jwtToken JwtToken
      */
     public void save(JwtToken jwtToken) {
-        jwtTokenRepository.save(jwtToken);
+        tokenStore.save(jwtToken);
     }
 
     /**
-     * Delete a JWT token.
+     * Delete a JWT token and revoke it on every node.
      *
      * @param jwtToken JwtToken
      */
     public void delete(JwtToken jwtToken) {
-        jwtTokenRepository.delete(jwtToken);
-        log.info("Deleted token: {}", jwtToken);
+        tokenStore.delete(jwtToken);
+        tokenValidationCacheService.revoke(List.of(jwtToken.getTokenDigest(), jwtToken.getRefreshTokenDigest()));
+        log.info("Deleted token: {}", jwtToken.getId());
     }
 }
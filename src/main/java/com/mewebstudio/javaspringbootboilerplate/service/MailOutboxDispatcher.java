@@ -0,0 +1,113 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends the mails of the outbox in batches. Every batch is rendered first and then handed to the mail sender at once,
+ * which sends all messages of the batch over a single SMTP connection.
+ */
+@Component
+@Slf4j
+public class MailOutboxDispatcher {
+    private final MailOutboxService mailOutboxService;
+
+    private final MailSenderService mailSenderService;
+
+    private final int batchSize;
+
+    /**
+     * Mail outbox dispatcher constructor.
+     *
+     * @param mailOutboxService MailOutboxService
+     * @param mailSenderService MailSenderService
+     * @param batchSize         int number of mails claimed and sent at once
+     */
+    public MailOutboxDispatcher(
+        MailOutboxService mailOutboxService,
+        MailSenderService mailSenderService,
+        @Value("${app.mail.outbox.batch-size}") int batchSize
+    ) {
+        this.mailOutboxService = mailOutboxService;
+        this.mailSenderService = mailSenderService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Dispatch due mails until the outbox is drained.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval}")
+    public void dispatch() {
+        List<MailOutbox> batch;
+        do {
+            batch = mailOutboxService.claim(batchSize);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Purge the sent mails that are past the retention.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.purge-interval}")
+    public void purge() {
+        mailOutboxService.purgeSent();
+    }
+
+    /**
+     * Render and send a claimed batch and record the outcome of every mail. The mails of a batch share the lease set
+     * when they were claimed.
+     *
+     * @param batch List of MailOutbox
+     */
+    protected void send(List<MailOutbox> batch) {
+        Map<MimeMessage, UUID> messages = new IdentityHashMap<>();
+        Map<UUID, String> failures = new HashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(mailSenderService.createMessage(mail.getType(), mail.getRecipientEmail(),
+                    mail.getRecipientName(), Locale.forLanguageTag(mail.getLocale()), mail.getVariables()), mail.getId());
+            } catch (MessagingException | UnsupportedEncodingException | RuntimeException e) {
+                log.error("[MailOutbox] Failed to render mail: {} - {}", mail.getId(), e.getMessage());
+                failures.put(mail.getId(), e.getMessage());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSenderService.sendBatch(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(id -> failures.put(id, e.getMessage()));
+                } else {
+                    e.getFailedMessages().forEach((message, exception) ->
+                        failures.put(messages.get(message), exception.getMessage()));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(id -> failures.put(id, e.getMessage()));
+            }
+        }
+
+        List<UUID> sent = new ArrayList<>(messages.values());
+        sent.removeAll(failures.keySet());
+        mailOutboxService.complete(batch.get(0).getNextAttemptAt(), sent, failures);
+        log.info("[MailOutbox] Dispatched batch, sent: {}, failed: {}", sent.size(), failures.size());
+    }
+}
@@ -0,0 +1,216 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.MailOutboxRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailOutboxStatusEnum;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class MailOutboxService {
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final MailSenderService mailSenderService;
+
+    private final int maxAttempts;
+
+    private final Duration backoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration lease;
+
+    private final Duration retention;
+
+    /**
+     * Mail outbox service constructor.
+     *
+     * @param mailOutboxRepository MailOutboxRepository
+     * @param mailSenderService    MailSenderService
+     * @param maxAttempts          int attempts before a mail is dead
+     * @param backoff              Long milliseconds to wait after the first failure, doubled on every failure
+     * @param maxBackoff           Long maximum milliseconds to wait between two attempts
+     * @param lease                Long milliseconds a claimed mail is reserved for a dispatcher
+     * @param retention            Long milliseconds a sent mail is kept before it is purged
+     */
+    public MailOutboxService(
+        MailOutboxRepository mailOutboxRepository,
+        MailSenderService mailSenderService,
+        @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+        @Value("${app.mail.outbox.backoff}") Long backoff,
+        @Value("${app.mail.outbox.max-backoff}") Long maxBackoff,
+        @Value("${app.mail.outbox.lease}") Long lease,
+        @Value("${app.mail.outbox.retention}") Long retention
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSenderService = mailSenderService;
+        this.maxAttempts = maxAttempts;
+        this.backoff = Duration.ofMillis(backoff);
+        this.maxBackoff = Duration.ofMillis(maxBackoff);
+        this.lease = Duration.ofMillis(lease);
+        this.retention = Duration.ofMillis(retention);
+    }
+
+    /**
+     * Enqueue the email verification mail of the user in the current transaction.
+     *
+     * @param user User
+     * @return MailOutbox
+     */
+    @Transactional
+    public MailOutbox enqueueUserEmailVerification(User user) {
+        return enqueue(MailTypeEnum.EMAIL_VERIFICATION, user, mailSenderService.getUserEmailVerificationVariables(user));
+    }
+
+    /**
+     * Enqueue the password reset mail of the user in the current transaction.
+     *
+     * @param user User
+     * @return MailOutbox
+     */
+    @Transactional
+    public MailOutbox enqueueUserPasswordReset(User user) {
+        return enqueue(MailTypeEnum.PASSWORD_RESET, user, mailSenderService.getUserPasswordResetVariables(user));
+    }
+
+    /**
+     * Claim a batch of due mails. The rows locked by another dispatcher are skipped and the claimed ones are
+     * reserved for the lease time, so they are picked up again when this dispatcher stops before completing them.
+     * The lease end identifies the claim, it is truncated to the precision of the column so it compares equal.
+     *
+     * @param limit int
+     * @return List of MailOutbox
+     */
+    @Transactional
+    public List<MailOutbox> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+        List<MailOutbox> mails = mailOutboxRepository.findDueForUpdate(now, limit);
+        mails.forEach(mail -> {
+            mail.setStatus(MailOutboxStatusEnum.PROCESSING);
+            mail.setNextAttemptAt(leaseUntil);
+        });
+
+        return mailOutboxRepository.saveAll(mails);
+    }
+
+    /**
+     * Complete a dispatched batch. Failed mails are retried with an exponential backoff until they are dead. Only the
+     * mails still leased to this batch are updated, a mail whose lease ran out belongs to the dispatcher that claimed
+     * it again.
+     *
+     * @param leaseUntil LocalDateTime lease of the batch, as set by claim
+     * @param sentIds    Collection of sent mail ids
+     * @param failures   Map of failed mail id to error message
+     */
+    @Transactional
+    public void complete(LocalDateTime leaseUntil, Collection<UUID> sentIds, Map<UUID, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!sentIds.isEmpty()) {
+            int marked = mailOutboxRepository.markSent(sentIds, MailOutboxStatusEnum.PROCESSING, leaseUntil,
+                MailOutboxStatusEnum.SENT, now);
+            if (marked < sentIds.size()) {
+                log.warn("[MailOutbox] Lease of {} sent mails ran out before completion, they may be sent twice",
+                    sentIds.size() - marked);
+            }
+        }
+
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        List<MailOutbox> failed = mailOutboxRepository.findLeasedForUpdate(failures.keySet(),
+            MailOutboxStatusEnum.PROCESSING, leaseUntil);
+        if (failed.size() < failures.size()) {
+            log.warn("[MailOutbox] Lease of {} failed mails ran out before completion, skipping them",
+                failures.size() - failed.size());
+        }
+        failed.forEach(mail -> {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setLastError(truncate(failures.get(mail.getId())));
+            if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(MailOutboxStatusEnum.DEAD);
+                log.error("[MailOutbox] Mail is dead after {} attempts: {} - {}", mail.getAttempts(), mail.getId(),
+                    mail.getLastError());
+            } else {
+                mail.setStatus(MailOutboxStatusEnum.PENDING);
+                mail.setNextAttemptAt(now.plus(getBackoff(mail.getAttempts())));
+            }
+        });
+        mailOutboxRepository.saveAll(failed);
+    }
+
+    /**
+     * Delete the sent mails older than the retention, so the outbox only holds the mails still to be dispatched and
+     * the recently sent ones. Dead mails are kept for inspection.
+     *
+     * @return int number of purged mails
+     */
+    @Transactional
+    public int purgeSent() {
+        int purged = mailOutboxRepository.deleteSentBefore(MailOutboxStatusEnum.SENT, LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("[MailOutbox] Purged {} sent mails", purged);
+        }
+
+        return purged;
+    }
+
+    /**
+     * Wait time after the given number of failed attempts.
+     *
+     * @param attempts int
+     * @return Duration
+     */
+    protected Duration getBackoff(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Save a pending mail.
+     *
+     * @param type      MailTypeEnum
+     * @param user      User
+     * @param variables Map of template variables
+     * @return MailOutbox
+     */
+    private MailOutbox enqueue(MailTypeEnum type, User user, Map<String, String> variables) {
+        MailOutbox mail = mailOutboxRepository.save(MailOutbox.builder()
+            .type(type)
+            .recipientEmail(user.getEmail())
+            .recipientName(user.getName())
+            .locale(LocaleContextHolder.getLocale().toLanguageTag())
+            .variables(variables)
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+        log.info("[MailOutbox] Enqueued {} mail: {} - {}", type, user.getId(), mail.getId());
+
+        return mail;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,20 +1,29 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailTypeEnum;
+import com.mewebstudio.javaspringbootboilerplate.util.LocalCache;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -25,6 +34,16 @@ public class MailSenderService {
 
     private static final String URL = "url";
 
+    private static final String FULL_NAME = "fullName";
+
+    private static final String PLACEHOLDER_PREFIX = "{{mail:";
+
+    private static final String PLACEHOLDER_SUFFIX = "}}";
+
+    private static final int SKELETON_CACHE_SIZE = 64;
+
+    private static final Duration SKELETON_CACHE_TTL = Duration.ofHours(1);
+
     private final String appName;
 
     private final String appUrl;
@@ -39,6 +58,8 @@ public class MailSenderService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final LocalCache<String, List<String>> skeletons = new LocalCache<>(SKELETON_CACHE_SIZE, SKELETON_CACHE_TTL);
+
     /**
      * Mail sender service constructor.
      *
@@ -69,72 +90,144 @@ public class MailSenderService {
     }
 
     /**
-     * Send user email verification link.
+     * Template variables of the user email verification mail.
      *
      * @param user User
+     * @return Map
+     */
+    public Map<String, String> getUserEmailVerificationVariables(User user) {
+        return createUserVariables(user, String.format("%s/auth/email-verification/%s", frontendUrl,
+            user.getEmailVerificationToken().getToken()));
+    }
+
+    /**
+     * Template variables of the user password reset mail.
+     *
+     * @param user User
+     * @return Map
+     */
+    public Map<String, String> getUserPasswordResetVariables(User user) {
+        return createUserVariables(user, String.format("%s/auth/password/%s", frontendUrl,
+            user.getPasswordResetToken().getToken()));
+    }
+
+    /**
+     * Render a mail into a message without sending it.
+     *
+     * @param type      MailTypeEnum
+     * @param email     String recipient address
+     * @param name      String recipient name
+     * @param locale    Locale
+     * @param variables Map of template variables
+     * @return MimeMessage
+     * @throws MessagingException           when the message can not be built
+     * @throws UnsupportedEncodingException when an address can not be encoded
+     */
+    public MimeMessage createMessage(MailTypeEnum type,
+                                     String email,
+                                     String name,
+                                     Locale locale,
+                                     Map<String, String> variables) throws MessagingException, UnsupportedEncodingException {
+        return createMimeMessage(new InternetAddress(senderAddress, appName), new InternetAddress(email, name),
+            messageSourceService.get(type.getSubject(), locale), render(type.getTemplate(), locale, variables));
+    }
+
+    /**
+     * Render a mail template. The template is processed once per locale with placeholders in place of the variables
+     * and the resulting skeleton is cached, so a render only fills the HTML escaped variables into it. Variables must
+     * therefore only be printed by the template, not used in conditions or expressions.
+     *
+     * @param template  String
+     * @param locale    Locale
+     * @param variables Map of template variables
+     * @return String
      */
-    public void sendUserEmailVerification(User user) {
-        try {
-            log.info(String.format("[EmailService] Sending verification e-mail: %s - %s - %s",
-                user.getId(), user.getEmail(), user.getEmailVerificationToken().getToken()));
-
-            String url = String.format("%s/auth/email-verification/%s", frontendUrl,
-                user.getEmailVerificationToken().getToken());
-
-            final Context ctx = createContext();
-            ctx.setVariable(NAME, user.getName());
-            ctx.setVariable(LAST_NAME, user.getLastName());
-            ctx.setVariable("fullName", user.getFullName());
-            ctx.setVariable(URL, url);
-
-            String subject = messageSourceService.get("email_verification");
-            send(new InternetAddress(senderAddress, appName), new InternetAddress(user.getEmail(), user.getName()),
-                subject, templateEngine.process("mail/user-email-verification", ctx));
-
-            log.info(String.format("[EmailService] Sent verification e-mail: %s - %s",
-                user.getId(), user.getEmail()));
-        } catch (UnsupportedEncodingException | MessagingException | MailException e) {
-            log.error(String.format("[EmailService] Failed to send verification e-mail: %s", e.getMessage()));
+    public String render(String template, Locale locale, Map<String, String> variables) {
+        List<String> skeleton = skeletons.get(template + "|" + locale.toLanguageTag(),
+            key -> createSkeleton(template, locale, variables.keySet()));
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < skeleton.size(); i++) {
+            if (i % 2 == 0) {
+                builder.append(skeleton.get(i));
+            } else {
+                builder.append(HtmlUtils.htmlEscape(variables.getOrDefault(skeleton.get(i), "")));
+            }
         }
+
+        return builder.toString();
+    }
+
+    /**
+     * Send messages over a single SMTP connection.
+     *
+     * @param messages MimeMessage[]
+     * @throws MailException when sending fails, MailSendException carries the failed messages
+     */
+    public void sendBatch(MimeMessage... messages) throws MailException {
+        mailSender.send(messages);
     }
 
     /**
-     * Send user password reset link.
+     * Create template variables for a user.
      *
      * @param user User
+     * @param url  String
+     * @return Map
      */
-    public void sendUserPasswordReset(User user) {
-        try {
-            log.info(String.format("[EmailService] Sending reset password e-mail: %s - %s - %s",
-                user.getId(), user.getEmail(), user.getPasswordResetToken().getToken()));
-
-            String url = String.format("%s/auth/password/%s", frontendUrl,
-                user.getPasswordResetToken().getToken());
-
-            final Context ctx = createContext();
-            ctx.setVariable(NAME, user.getName());
-            ctx.setVariable(LAST_NAME, user.getLastName());
-            ctx.setVariable("fullName", user.getFullName());
-            ctx.setVariable(URL, url);
-
-            String subject = messageSourceService.get("password_reset");
-            send(new InternetAddress(senderAddress, appName), new InternetAddress(user.getEmail(), user.getName()),
-                subject, templateEngine.process("mail/user-reset-password", ctx));
-
-            log.info(String.format("[EmailService] Sent reset password e-mail: %s - %s",
-                user.getId(), user.getEmail()));
-        } catch (UnsupportedEncodingException | MessagingException | MailException e) {
-            log.error(String.format("[EmailService] Failed to send reset password e-mail: %s", e.getMessage()));
+    private Map<String, String> createUserVariables(User user, String url) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put(NAME, user.getName());
+        variables.put(LAST_NAME, user.getLastName());
+        variables.put(FULL_NAME, user.getFullName());
+        variables.put(URL, url);
+
+        return variables;
+    }
+
+    /**
+     * Process a template with placeholders for the variables and split it into its static parts and the variable
+     * names, the even indexes of the result are static parts and the odd ones are variable names.
+     *
+     * @param template String
+     * @param locale   Locale
+     * @param names    Collection of variable names
+     * @return List
+     */
+    private List<String> createSkeleton(String template, Locale locale, Collection<String> names) {
+        final Context ctx = createContext(locale);
+        names.forEach(variable -> ctx.setVariable(variable, PLACEHOLDER_PREFIX + variable + PLACEHOLDER_SUFFIX));
+        String html = templateEngine.process(template, ctx);
+
+        List<String> skeleton = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = html.indexOf(PLACEHOLDER_PREFIX, position)) >= 0) {
+            int end = html.indexOf(PLACEHOLDER_SUFFIX, start);
+            String variable = end < 0 ? null : html.substring(start + PLACEHOLDER_PREFIX.length(), end);
+            if (variable == null || !names.contains(variable)) {
+                break;
+            }
+
+            skeleton.add(html.substring(position, start));
+            skeleton.add(variable);
+            position = end + PLACEHOLDER_SUFFIX.length();
         }
+        skeleton.add(html.substring(position));
+        log.debug("[EmailService] Created skeleton of {} for {} with {} variables", template, locale,
+            skeleton.size() / 2);
+
+        return List.copyOf(skeleton);
     }
 
     /**
      * Create context for template engine.
      *
+     * @param locale Locale
      * @return Context
      */
-    private Context createContext() {
-        final Context ctx = new Context(LocaleContextHolder.getLocale());
+    private Context createContext(Locale locale) {
+        final Context ctx = new Context(locale);
         ctx.setVariable("SENDER_ADDRESS", senderAddress);
         ctx.setVariable("APP_NAME", appName);
         ctx.setVariable("APP_URL", appUrl);
@@ -144,18 +237,19 @@ public class MailSenderService {
     }
 
     /**
-     * Send an e-mail to the specified address.
+     * Create a message.
      *
      * @param from    Address who sent
      * @param to      Address who receive
      * @param subject String subject
      * @param text    String message
-     * @throws MessagingException when sending fails
+     * @return MimeMessage
+     * @throws MessagingException when the message can not be built
      */
-    private void send(InternetAddress from,
-                      InternetAddress to,
-                      String subject,
-                      String text) throws MessagingException, MailException {
+    private MimeMessage createMimeMessage(InternetAddress from,
+                                          InternetAddress to,
+                                          String subject,
+                                          String text) throws MessagingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
         mimeMessageHelper.setFrom(from);
@@ -163,6 +257,6 @@ public class MailSenderService {
         mimeMessageHelper.setSubject(subject);
         mimeMessageHelper.setText(text, true);
 
-        mailSender.send(mimeMessage);
+        return mimeMessage;
     }
 }
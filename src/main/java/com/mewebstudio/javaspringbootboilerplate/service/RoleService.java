@@ -5,17 +5,29 @@ import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.repository.RoleRepository;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class RoleService {
     private final RoleRepository roleRepository;
 
     private final MessageSourceService messageSourceService;
 
+    /**
+     * Registry of the stored roles. It is replaced as a whole on refresh, so readers never lock.
+     */
+    private volatile Map<Constants.RoleEnum, Role> registry = Collections.emptyMap();
+
     /**
      * Count roles.
      *
@@ -26,14 +38,20 @@ public class RoleService {
     }
 
     /**
-     * Find by role name.
+     * Find by role name. Roles are served from the registry, only an unknown role is queried.
      *
      * @param name Constants.RoleEnum
-     * @return Role
+     * @return Role detached copy that can be added to a user
      */
     public Role findByName(final Constants.RoleEnum name) {
-        return roleRepository.findByName(name)
-            .orElseThrow(() -> new NotFoundException(messageSourceService.get("role_not_found")));
+        Role role = registry.get(name);
+        if (role == null) {
+            role = roleRepository.findByName(name)
+                .orElseThrow(() -> new NotFoundException(messageSourceService.get("role_not_found")));
+            register(List.of(role));
+        }
+
+        return copy(role);
     }
 
     /**
@@ -43,7 +61,10 @@ public class RoleService {
      * @return Role
      */
     public Role create(final Role role) {
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        register(List.of(saved));
+
+        return saved;
     }
 
     /**
@@ -53,6 +74,48 @@ public class RoleService {
      * @return List
      */
     public List<Role> saveList(List<Role> roleList) {
-        return roleRepository.saveAll(roleList);
+        List<Role> saved = roleRepository.saveAll(roleList);
+        register(saved);
+
+        return saved;
+    }
+
+    /**
+     * Reload the registry from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        Map<Constants.RoleEnum, Role> roles = new EnumMap<>(Constants.RoleEnum.class);
+        roleRepository.findAll().forEach(role -> roles.put(role.getName(), copy(role)));
+        registry = Collections.unmodifiableMap(roles);
+        log.info("[RoleService] Loaded roles: {}", roles.keySet());
+    }
+
+    /**
+     * Add roles to the registry.
+     *
+     * @param roles List of Role
+     */
+    private synchronized void register(final List<Role> roles) {
+        Map<Constants.RoleEnum, Role> updated = new EnumMap<>(Constants.RoleEnum.class);
+        updated.putAll(registry);
+        roles.forEach(role -> updated.put(role.getName(), copy(role)));
+        registry = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * Detached copy of a role. It carries the id and the name, which is all a user needs to reference the role and
+     * to be rendered, and it is never shared between callers.
+     *
+     * @param role Role
+     * @return Role
+     */
+    private static Role copy(final Role role) {
+        Role snapshot = Role.builder().name(role.getName()).build();
+        snapshot.setId(role.getId());
+        snapshot.setCreatedAt(role.getCreatedAt());
+        snapshot.setUpdatedAt(role.getUpdatedAt());
+
+        return snapshot;
     }
 }
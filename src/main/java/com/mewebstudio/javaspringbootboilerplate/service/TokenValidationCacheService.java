@@ -0,0 +1,110 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import com.mewebstudio.javaspringbootboilerplate.util.LocalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Local cache of the sessions found in the token store, keyed by token digest. An entry lives until the shorter of
+ * the configured window and the expiration of the token itself. Revocations are pushed to the other nodes, the window
+ * bounds how long a revoked token can still be accepted when such a message is lost.
+ */
+@Service
+@Slf4j
+public class TokenValidationCacheService implements MessageListener {
+    private static final String REVOCATION_CHANNEL = "jwtTokens:revoke";
+
+    private static final String SEPARATOR = ",";
+
+    private final LocalCache<String, JwtToken> cache;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Counter revocations;
+
+    /**
+     * Token validation cache service constructor.
+     *
+     * @param maxSize                       int maximum number of cached tokens
+     * @param window                        Long time to live in milliseconds
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     * @param meterRegistry                 MeterRegistry
+     */
+    public TokenValidationCacheService(
+        @Value("${app.cache.jwt-tokens.max-size}") final int maxSize,
+        @Value("${app.cache.jwt-tokens.window}") final Long window,
+        final StringRedisTemplate stringRedisTemplate,
+        final RedisMessageListenerContainer redisMessageListenerContainer,
+        final MeterRegistry meterRegistry
+    ) {
+        this.cache = new LocalCache<String, JwtToken>(maxSize, Duration.ofMillis(window))
+            .bindTo(meterRegistry, "jwtTokens");
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.revocations = Counter.builder("jwt.tokens.revocations").register(meterRegistry);
+        Gauge.builder("jwt.tokens.revocation.window", () -> window)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+    }
+
+    /**
+     * Get a cached session.
+     *
+     * @param digest String token digest
+     * @return JwtToken or null
+     */
+    public JwtToken get(final String digest) {
+        return cache.get(digest);
+    }
+
+    /**
+     * Cache a session until the token expires, bounded by the window.
+     *
+     * @param digest    String token digest
+     * @param jwtToken  JwtToken
+     * @param expiresAt long token expiration in epoch milliseconds
+     */
+    public void put(final String digest, final JwtToken jwtToken, final long expiresAt) {
+        cache.put(digest, jwtToken, expiresAt);
+    }
+
+    /**
+     * Revoke tokens on this node and on the other nodes.
+     *
+     * @param digests List of token digests
+     */
+    public void revoke(final List<String> digests) {
+        digests.forEach(cache::invalidate);
+        revocations.increment();
+        try {
+            stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, String.join(SEPARATOR, digests));
+        } catch (DataAccessException e) {
+            log.error("Token revocation could not be published", e);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        for (String digest : new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR)) {
+            cache.invalidate(digest);
+        }
+        log.trace("Tokens revoked by another node");
+    }
+}
@@ -0,0 +1,138 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.CountModeEnum;
+import com.mewebstudio.javaspringbootboilerplate.util.LocalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Total counts of the user list. Exact counts run on a dedicated pool, so the count query runs on its own connection
+ * while the page is fetched, and are cached briefly per filter set. When the pool and its bounded queue are full the
+ * count runs on the calling thread. Estimated counts of the unfiltered list are read from the planner statistics.
+ */
+@Service
+@Slf4j
+public class UserCountService implements DisposableBean {
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass('users')";
+
+    private final UserRepository userRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LocalCache<UserCriteria, Long> cache;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * User count service constructor.
+     *
+     * @param userRepository UserRepository
+     * @param jdbcTemplate   JdbcTemplate
+     * @param maxSize        int maximum number of cached counts
+     * @param ttl            Long time to live of a cached count in milliseconds
+     * @param poolSize       int number of count queries that run at the same time
+     * @param queueCapacity  int number of count queries waiting for a free thread
+     * @param meterRegistry  MeterRegistry
+     */
+    public UserCountService(
+        final UserRepository userRepository,
+        final JdbcTemplate jdbcTemplate,
+        @Value("${app.cache.user-counts.max-size}") final int maxSize,
+        @Value("${app.cache.user-counts.ttl}") final Long ttl,
+        @Value("${app.users.count-pool-size}") final int poolSize,
+        @Value("${app.users.count-queue-capacity}") final int queueCapacity,
+        final MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = new LocalCache<UserCriteria, Long>(maxSize, Duration.ofMillis(ttl))
+            .bindTo(meterRegistry, "userCounts");
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("user-count-");
+        this.executor.initialize();
+    }
+
+    /**
+     * Count the users matching the criteria.
+     *
+     * @param criteria  UserCriteria
+     * @param countMode CountModeEnum
+     * @return CompletableFuture of the count, completed with null when no count is requested
+     */
+    public CompletableFuture<Long> count(final UserCriteria criteria, final CountModeEnum countMode) {
+        if (countMode == CountModeEnum.NONE) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (countMode == CountModeEnum.ESTIMATED && isUnfiltered(criteria)) {
+            Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+            if (estimate != null && estimate >= 0) {
+                return CompletableFuture.completedFuture(estimate);
+            }
+
+            log.debug("[UserCount] Table is not analyzed yet, counting exactly");
+        }
+
+        Long cached = cache.get(criteria);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> countExactly(criteria), executor);
+        } catch (TaskRejectedException e) {
+            log.debug("[UserCount] Count pool is saturated, counting on the calling thread");
+
+            return CompletableFuture.completedFuture(countExactly(criteria));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Count the users matching the criteria with a query and cache the count.
+     *
+     * @param criteria UserCriteria
+     * @return long
+     */
+    private long countExactly(final UserCriteria criteria) {
+        long count = userRepository.count(new UserFilterSpecification(criteria));
+        cache.put(criteria, count);
+
+        return count;
+    }
+
+    /**
+     * Whether the criteria has no filter. Only the sort options may be set.
+     *
+     * @param criteria UserCriteria
+     * @return boolean
+     */
+    private static boolean isUnfiltered(final UserCriteria criteria) {
+        return criteria == null || ((criteria.getRoles() == null || criteria.getRoles().isEmpty())
+            && criteria.getIsAvatar() == null
+            && criteria.getCreatedAtStart() == null
+            && criteria.getCreatedAtEnd() == null
+            && criteria.getIsEmailActivated() == null
+            && criteria.getIsBlocked() == null
+            && criteria.getQ() == null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import com.mewebstudio.javaspringbootboilerplate.util.LocalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@Slf4j
+public class UserDetailsCacheService implements MessageListener {
+    private static final String INVALIDATION_CHANNEL = "userDetails:invalidate";
+
+    private static final String REVISION_PREFIX = "user:revision:";
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final LocalCache<String, JwtUserDetails> cache;
+
+    private final LocalCache<String, Long> revisions;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * User details cache service constructor.
+     *
+     * @param maxSize                       int maximum number of cached users
+     * @param ttl                           Long time to live in milliseconds
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     * @param meterRegistry                 MeterRegistry
+     */
+    public UserDetailsCacheService(
+        @Value("${app.cache.user-details.max-size}") final int maxSize,
+        @Value("${app.cache.user-details.ttl}") final Long ttl,
+        final StringRedisTemplate stringRedisTemplate,
+        final RedisMessageListenerContainer redisMessageListenerContainer,
+        final MeterRegistry meterRegistry
+    ) {
+        this.cache = new LocalCache<String, JwtUserDetails>(maxSize, Duration.ofMillis(ttl))
+            .bindTo(meterRegistry, "userDetails");
+        this.revisions = new LocalCache<String, Long>(maxSize, Duration.ofMillis(ttl))
+            .bindTo(meterRegistry, "userRevisions");
+        this.stringRedisTemplate = stringRedisTemplate;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Get cached user details.
+     *
+     * @param id String user id
+     * @return JwtUserDetails or null
+     */
+    public JwtUserDetails get(final String id) {
+        return cache.get(id);
+    }
+
+    /**
+     * Get the local invalidation generation of a user. Read it before loading the user and pass it to put.
+     *
+     * @param id String user id
+     * @return long
+     */
+    public long getGeneration(final String id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Cache user details loaded at the given generation. When the user was invalidated in the meantime the details
+     * may be stale and are dropped. The generation is checked after the put, an invalidation running concurrently
+     * either changed it already or removes the entry after the put.
+     *
+     * @param id          String user id
+     * @param userDetails JwtUserDetails that must not carry the user entity
+     * @param generation  long generation read before the user was loaded
+     */
+    public void put(final String id, final JwtUserDetails userDetails, final long generation) {
+        cache.put(id, userDetails);
+        if (generations.get(stripe(id)) != generation) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Get the revision of a user, it is increased on every invalidation. A revision loaded while the user was
+     * invalidated is returned but not cached, the same way put drops stale details.
+     *
+     * @param id String user id
+     * @return long
+     */
+    public long getRevision(final String id) {
+        Long cached = revisions.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.get(stripe(id));
+        String value = stringRedisTemplate.opsForValue().get(REVISION_PREFIX + id);
+        long revision = value == null ? 0L : Long.parseLong(value);
+        revisions.put(id, revision);
+        if (generations.get(stripe(id)) != generation) {
+            revisions.invalidate(id);
+        }
+
+        return revision;
+    }
+
+    /**
+     * Invalidate the user on this node and on the other nodes. Inside a transaction this happens after commit, a
+     * request that loaded the old state before it can not cache it afterwards, see put.
+     *
+     * @param id UUID user id
+     */
+    public void invalidate(final UUID id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishInvalidation(id.toString());
+                }
+            });
+        } else {
+            publishInvalidation(id.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        String id = new String(message.getBody(), StandardCharsets.UTF_8);
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        revisions.invalidate(id);
+        log.trace("User details invalidated by another node: {}", id);
+    }
+
+    /**
+     * Increase the revision, invalidate locally and publish to the other nodes.
+     *
+     * @param id String user id
+     */
+    private void publishInvalidation(final String id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        try {
+            stringRedisTemplate.opsForValue().increment(REVISION_PREFIX + id);
+            // A revision read before the increment must not be cached by a load that saw the first generation bump
+            generations.incrementAndGet(stripe(id));
+            revisions.invalidate(id);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, id);
+        } catch (DataAccessException e) {
+            log.error("User details invalidation could not be published for: {}", id, e);
+        }
+    }
+
+    /**
+     * Generation stripe of a user. Users sharing a stripe only drop each other's puts during an invalidation.
+     *
+     * @param id String user id
+     * @return int
+     */
+    private static int stripe(final String id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,208 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserResponse;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.ExportFormatEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams users to an output stream. Rows are read over a server side cursor in a read-only transaction and written
+ * as they arrive, so the memory use does not depend on the number of exported users.
+ */
+@Service
+@Slf4j
+public class UserExportService {
+    private static final String[] CSV_HEADER = {"id", "email", "name", "lastName", "roles", "emailVerifiedAt",
+        "blockedAt", "createdAt", "updatedAt"};
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final int fetchSize;
+
+    private final long timeout;
+
+    private final Counter rows;
+
+    private final Counter bytes;
+
+    private final Timer timer;
+
+    /**
+     * User export service constructor.
+     *
+     * @param userRepository     UserRepository
+     * @param transactionManager PlatformTransactionManager
+     * @param objectMapper       ObjectMapper
+     * @param fetchSize          int rows fetched per round trip
+     * @param timeout            Long milliseconds an export may stream before it is cut off
+     * @param meterRegistry      MeterRegistry
+     */
+    public UserExportService(
+        final UserRepository userRepository,
+        final PlatformTransactionManager transactionManager,
+        final ObjectMapper objectMapper,
+        @Value("${app.users.export.fetch-size}") final int fetchSize,
+        @Value("${app.users.export.timeout}") final Long timeout,
+        final MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+        this.rows = Counter.builder("users.export.rows").description("Exported users").register(meterRegistry);
+        this.bytes = Counter.builder("users.export.bytes").baseUnit("bytes").description("Exported bytes")
+            .register(meterRegistry);
+        this.timer = Timer.builder("users.export").description("User export duration").register(meterRegistry);
+    }
+
+    /**
+     * Time an export may stream, it replaces the async request timeout of MVC for the export requests.
+     *
+     * @return long milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Export users matching the criteria.
+     *
+     * @param criteria     UserCriteria
+     * @param sort         Sort
+     * @param format       ExportFormatEnum
+     * @param outputStream OutputStream
+     * @throws IOException when writing fails
+     */
+    public void export(final UserCriteria criteria,
+                       final Sort sort,
+                       final ExportFormatEnum format,
+                       final OutputStream outputStream) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(outputStream);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(counting, StandardCharsets.UTF_8));
+        long start = System.nanoTime();
+        long[] exported = {0};
+
+        try {
+            if (format == ExportFormatEnum.CSV) {
+                writer.write(String.join(",", CSV_HEADER) + "\n");
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                userRepository.forEachChunk(new UserFilterSpecification(criteria), sort, fetchSize, chunk -> {
+                    write(writer, format, chunk);
+                    exported[0] += chunk.size();
+                    rows.increment(chunk.size());
+                }));
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            bytes.increment(counting.count);
+            double seconds = Math.max(elapsed / 1e9, 1e-9);
+            log.info("[UserExport] Exported {} users, {} bytes in {} ms ({} rows/s, {} bytes/s)", exported[0],
+                counting.count, elapsed / 1_000_000, Math.round(exported[0] / seconds),
+                Math.round(counting.count / seconds));
+        }
+    }
+
+    /**
+     * Write a chunk and flush it to the client.
+     *
+     * @param writer Writer
+     * @param format ExportFormatEnum
+     * @param chunk  List of User
+     */
+    private void write(final Writer writer, final ExportFormatEnum format, final List<User> chunk) {
+        try {
+            for (User user : chunk) {
+                UserResponse response = UserResponse.convert(user);
+                if (format == ExportFormatEnum.CSV) {
+                    writer.write(toCsv(response));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(response));
+                }
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsv(final UserResponse user) {
+        return Stream.of(user.getId(), user.getEmail(), user.getName(), user.getLastName(),
+                String.join("|", user.getRoles()), user.getEmailVerifiedAt(), user.getBlockedAt(), user.getCreatedAt(),
+                user.getUpdatedAt())
+            .map(value -> escapeCsv(Objects.toString(value, "")))
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Quote a CSV field when needed and neutralize values that spreadsheets would evaluate as formulas.
+     *
+     * @param value String
+     * @return String
+     */
+    private static String escapeCsv(final String value) {
+        String field = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+
+        return field;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mewebstudio.javaspringbootboilerplate.dto.request.user.CreateUserRequest;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportErrorResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.security.BoundedPasswordEncoder;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.ExportFormatEnum;
+import com.mewebstudio.javaspringbootboilerplate.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk user import. Rows are read in batches; every batch is validated and its passwords are hashed on a bounded
+ * pool, then the users and their roles are written with JDBC batch inserts in one transaction per batch. The import
+ * pool already bounds the hashing, so the passwords are hashed with the undecorated encoder instead of queueing behind
+ * the logins on the password hashing pool, where a full queue would fail the whole import.
+ */
+@Service
+@Slf4j
+public class UserImportService implements DisposableBean {
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, email, password, name, last_name, "
+        + "email_verified_at, blocked_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+        + "ON CONFLICT (email) DO NOTHING";
+
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private static final String ROLE_SEPARATOR = "\\|";
+
+    private static final char BOM = '\uFEFF';
+
+    private final UserRepository userRepository;
+
+    private final RoleService roleService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final ObjectReader requestReader;
+
+    private final MessageSourceService messageSourceService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Counter imported;
+
+    private final Counter rejected;
+
+    private final Timer timer;
+
+    /**
+     * User import service constructor.
+     *
+     * @param userRepository       UserRepository
+     * @param roleService          RoleService
+     * @param jdbcTemplate         JdbcTemplate
+     * @param passwordEncoder      PasswordEncoder, a BoundedPasswordEncoder is unwrapped to its delegate
+     * @param validator            Validator
+     * @param objectMapper         ObjectMapper
+     * @param messageSourceService MessageSourceService
+     * @param transactionManager   PlatformTransactionManager
+     * @param batchSize            int rows validated and inserted together
+     * @param poolSize             int number of rows validated and hashed at the same time
+     * @param meterRegistry        MeterRegistry
+     */
+    public UserImportService(
+        final UserRepository userRepository,
+        final RoleService roleService,
+        final JdbcTemplate jdbcTemplate,
+        final PasswordEncoder passwordEncoder,
+        final Validator validator,
+        final ObjectMapper objectMapper,
+        final MessageSourceService messageSourceService,
+        final PlatformTransactionManager transactionManager,
+        @Value("${app.users.import.batch-size}") final int batchSize,
+        @Value("${app.users.import.pool-size}") final int poolSize,
+        final MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+            ? bounded.getDelegate() : passwordEncoder;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateUserRequest.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.messageSourceService = messageSourceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setThreadNamePrefix("user-import-");
+        this.executor.initialize();
+        this.imported = Counter.builder("users.import.rows").tag("result", "imported")
+            .description("Imported user rows").register(meterRegistry);
+        this.rejected = Counter.builder("users.import.rows").tag("result", "rejected")
+            .description("Imported user rows").register(meterRegistry);
+        this.timer = Timer.builder("users.import").description("User import duration").register(meterRegistry);
+    }
+
+    /**
+     * Import users. Rejected rows are reported with their line and errors and do not stop the import.
+     *
+     * @param inputStream InputStream
+     * @param format      ExportFormatEnum
+     * @return UserImportResponse
+     * @throws IOException when reading fails
+     */
+    public UserImportResponse importUsers(final InputStream inputStream,
+                                          final ExportFormatEnum format) throws IOException {
+        long start = System.nanoTime();
+        RowReader reader = new RowReader(new BufferedReader(new InputStreamReader(inputStream,
+            StandardCharsets.UTF_8)), format);
+        Map<Constants.RoleEnum, UUID> roleIds = new EnumMap<>(Constants.RoleEnum.class);
+        Set<String> emails = new HashSet<>();
+        List<UserImportErrorResponse> errors = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(batchSize);
+        int total = 0;
+        int created = 0;
+
+        try {
+            Row row;
+            while ((row = reader.next()) != null) {
+                total++;
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    created += importChunk(chunk, roleIds, emails, errors);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                created += importChunk(chunk, roleIds, emails, errors);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("[UserImport] Imported {} of {} users in {} ms ({} rows/s)", created, total,
+                elapsed / 1_000_000, Math.round(total / Math.max(elapsed / 1e9, 1e-9)));
+        }
+
+        return UserImportResponse.builder()
+            .total(total)
+            .imported(created)
+            .errors(errors)
+            .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Validate, hash and insert one batch of rows.
+     *
+     * @param chunk   List of Row
+     * @param roleIds Map of role ids resolved so far
+     * @param emails  Set of e-mails seen earlier in the file
+     * @param errors  List of UserImportErrorResponse the rejected rows are added to
+     * @return int number of created users
+     */
+    private int importChunk(final List<Row> chunk,
+                            final Map<Constants.RoleEnum, UUID> roleIds,
+                            final Set<String> emails,
+                            final List<UserImportErrorResponse> errors) {
+        Locale locale = LocaleContextHolder.getLocale();
+        CompletableFuture.allOf(chunk.stream()
+            .filter(Row::isValid)
+            .map(row -> CompletableFuture.runAsync(() -> validate(row, locale), executor))
+            .toArray(CompletableFuture[]::new)).join();
+
+        String uniqueEmail = messageSourceService.get("unique_email");
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.isValid() && !emails.add(row.request.getEmail())) {
+                row.reject("email", uniqueEmail);
+            }
+
+            if (row.isValid()) {
+                rows.add(row);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            Set<String> existing = new HashSet<>(userRepository.findEmailsByEmailIn(rows.stream()
+                .map(row -> row.request.getEmail())
+                .toList()));
+            rows.removeIf(row -> {
+                if (!existing.contains(row.request.getEmail())) {
+                    return false;
+                }
+
+                row.reject("email", uniqueEmail);
+
+                return true;
+            });
+        }
+
+        List<CompletableFuture<String>> hashes = rows.stream()
+            .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.request.getPassword()),
+                executor))
+            .toList();
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).password = hashes.get(i).join();
+        }
+
+        int created = insert(rows, roleIds, uniqueEmail);
+        chunk.stream().filter(row -> !row.isValid()).forEach(row -> errors.add(row.toResponse()));
+        imported.increment(created);
+        rejected.increment(chunk.size() - created);
+
+        return created;
+    }
+
+    /**
+     * Validate a row with the constraints of the create user request.
+     *
+     * @param row    Row
+     * @param locale Locale of the messages
+     */
+    private void validate(final Row row, final Locale locale) {
+        LocaleContextHolder.setLocale(locale);
+        try {
+            validator.validate(row.request)
+                .forEach(violation -> row.reject(violation.getPropertyPath().toString(), violation.getMessage()));
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    /**
+     * Insert the users and their roles. Users whose e-mail was taken after the existence check are rejected.
+     *
+     * @param rows        List of Row
+     * @param roleIds     Map of role ids resolved so far
+     * @param uniqueEmail String message of the rejected rows
+     * @return int number of created users
+     */
+    private int insert(final List<Row> rows, final Map<Constants.RoleEnum, UUID> roleIds, final String uniqueEmail) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            row.id = UuidV7.generate();
+            row.roles = row.request.getRoles().stream()
+                .map(Constants.RoleEnum::get)
+                .distinct()
+                .map(role -> roleIds.computeIfAbsent(role, name -> roleService.findByName(name).getId()))
+                .toList();
+            users.add(new Object[]{row.id, row.request.getEmail(), row.password, row.request.getName(),
+                row.request.getLastName(), Boolean.TRUE.equals(row.request.getIsEmailVerified()) ? now : null,
+                Boolean.TRUE.equals(row.request.getIsBlocked()) ? now : null, now, now});
+        }
+
+        return Objects.requireNonNullElse(transactionTemplate.execute(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, users);
+            List<Object[]> userRoles = new ArrayList<>();
+            int created = 0;
+            for (int i = 0; i < counts.length; i++) {
+                Row row = rows.get(i);
+                if (counts[i] == 0) {
+                    row.reject("email", uniqueEmail);
+                    continue;
+                }
+
+                created++;
+                row.roles.forEach(roleId -> userRoles.add(new Object[]{row.id, roleId}));
+            }
+
+            if (!userRoles.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, userRoles);
+            }
+
+            return created;
+        }), 0);
+    }
+
+    private static final class Row {
+        private final int line;
+
+        private final CreateUserRequest request;
+
+        private final Map<String, String> errors = new LinkedHashMap<>();
+
+        private UUID id;
+
+        private String password;
+
+        private List<UUID> roles;
+
+        Row(final int line, final CreateUserRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        void reject(final String field, final String message) {
+            errors.putIfAbsent(field, message);
+        }
+
+        UserImportErrorResponse toResponse() {
+            return UserImportErrorResponse.builder()
+                .line(line)
+                .email(request != null ? request.getEmail() : null)
+                .items(errors)
+                .build();
+        }
+    }
+
+    /**
+     * Reads create user requests from a CSV file with a header row or from one JSON object per line.
+     */
+    private final class RowReader {
+        private final BufferedReader reader;
+
+        private final ExportFormatEnum format;
+
+        private Map<String, Integer> header;
+
+        private int line;
+
+        RowReader(final BufferedReader reader, final ExportFormatEnum format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        /**
+         * Read the next row.
+         *
+         * @return Row or null at the end of the file
+         * @throws IOException when reading fails
+         */
+        Row next() throws IOException {
+            String text = readLine();
+            if (text == null) {
+                return null;
+            }
+
+            if (format == ExportFormatEnum.NDJSON) {
+                return ndjson(text);
+            }
+
+            if (header == null) {
+                List<String> names = csv(text);
+                header = new HashMap<>();
+                for (int i = 0; i < names.size(); i++) {
+                    header.put(names.get(i).trim(), i);
+                }
+
+                return next();
+            }
+
+            int start = line;
+            List<String> fields = csv(text);
+            String password = field(fields, "password");
+            String roles = field(fields, "roles");
+
+            return new Row(start, CreateUserRequest.builder()
+                .email(field(fields, "email"))
+                .password(password)
+                .passwordConfirm(password)
+                .name(field(fields, "name"))
+                .lastName(field(fields, "lastName"))
+                .roles(StringUtils.hasText(roles) ? Arrays.stream(roles.split(ROLE_SEPARATOR)).map(String::trim)
+                    .toList() : null)
+                .isEmailVerified(Boolean.parseBoolean(field(fields, "isEmailVerified")))
+                .isBlocked(Boolean.parseBoolean(field(fields, "isBlocked")))
+                .build());
+        }
+
+        private Row ndjson(final String text) {
+            try {
+                CreateUserRequest request = requestReader.readValue(text);
+                if (request.getPasswordConfirm() == null) {
+                    request.setPasswordConfirm(request.getPassword());
+                }
+
+                return new Row(line, request);
+            } catch (JsonProcessingException e) {
+                Row row = new Row(line, null);
+                row.reject("row", messageSourceService.get("invalid_value"));
+
+                return row;
+            }
+        }
+
+        private String field(final List<String> fields, final String name) {
+            Integer index = header.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+
+            String value = fields.get(index);
+
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Split a CSV record. Quoted fields may contain separators, escaped quotes and line breaks.
+         *
+         * @param first String first line of the record
+         * @return List of String
+         * @throws IOException when reading fails
+         */
+        private List<String> csv(final String first) throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            String text = first;
+            boolean quoted = false;
+            int i = 0;
+
+            while (true) {
+                if (i == text.length()) {
+                    String next = quoted ? reader.readLine() : null;
+                    if (next == null) {
+                        break;
+                    }
+
+                    line++;
+                    field.append('\n');
+                    text = next;
+                    i = 0;
+                    continue;
+                }
+
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append(c);
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            fields.add(field.toString());
+
+            return fields;
+        }
+
+        private String readLine() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) {
+                    return null;
+                }
+
+                line++;
+                if (line == 1 && !text.isEmpty() && text.charAt(0) == BOM) {
+                    text = text.substring(1);
+                }
+            } while (text.isBlank());
+
+            return text;
+        }
+    }
+}
@@ -15,15 +15,21 @@ import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSend
 import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.exception.ServiceUnavailableException;
 import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.PageCursor;
 import com.mewebstudio.javaspringbootboilerplate.util.PageRequestBuilder;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,6 +37,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindException;
@@ -39,6 +46,8 @@ import org.springframework.validation.FieldError;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -57,10 +66,16 @@ public class UserService {
 
     private final PasswordResetTokenService passwordResetTokenService;
 
+    private final UserDetailsCacheService userDetailsCacheService;
+
     private final ApplicationEventPublisher eventPublisher;
 
     private final MessageSourceService messageSourceService;
 
+    private final UserCountService userCountService;
+
+    private final TransactionTemplate transactionTemplate;
+
     /**
      * Get authentication.
      *
@@ -71,23 +86,13 @@ public class UserService {
     }
 
     /**
-     * Return the authenticated user.
+     * Return the authenticated user. The snapshot resolved by the JWT filter for the current request is reused,
+     * so this does not query the database again.
      *
      * @return user User
      */
     public User getUser() {
-        Authentication authentication = getAuthentication();
-        if (authentication.isAuthenticated()) {
-            try {
-                return findById(getPrincipal(authentication).getId());
-            } catch (ClassCastException | NotFoundException e) {
-                log.warn("[JWT] User details not found!");
-                throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
-            }
-        } else {
-            log.warn("[JWT] User not authenticated!");
-            throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
-        }
+        return resolveUser(false);
     }
 
     /**
@@ -102,13 +107,81 @@ public class UserService {
     /**
      * Find all users with pagination.
      *
+     * The total is counted according to the count mode of the pagination criteria, the count query runs in
+     * parallel to the page query. Without a count a slice is returned. No transaction is held, so the page query
+     * releases its connection before waiting for the count, which needs a connection of its own.
+     *
+     * @param criteria           UserCriteria
+     * @param paginationCriteria PaginationCriteria
+     * @return Page, or Slice when no count is requested
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Slice<User> findAll(UserCriteria criteria, PaginationCriteria paginationCriteria) {
+        PageRequest pageRequest = PageRequestBuilder.build(paginationCriteria);
+        CompletableFuture<Long> total = userCountService.count(criteria, paginationCriteria.getCountMode() != null
+            ? paginationCriteria.getCountMode() : Constants.CountModeEnum.EXACT);
+
+        List<User> users = userRepository.findAll(new UserFilterSpecification(criteria), pageRequest.getSort(),
+            pageRequest.getOffset(), pageRequest.getPageSize() + 1);
+        boolean hasNext = users.size() > pageRequest.getPageSize();
+        List<User> content = hasNext ? users.subList(0, pageRequest.getPageSize()) : users;
+
+        Long count;
+        try {
+            count = total.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        if (count == null) {
+            return new SliceImpl<>(content, pageRequest, hasNext);
+        }
+
+        return new PageImpl<>(content, pageRequest, count);
+    }
+
+    /**
+     * Find users after the cursor of the pagination criteria. The rows are sought by {@code (sortBy, id)} instead of
+     * being skipped with an offset, and no count query is run.
+     *
      * @param criteria           UserCriteria
      * @param paginationCriteria PaginationCriteria
-     * @return Page
+     * @return Slice
+     */
+    public Slice<User> findAllByCursor(UserCriteria criteria, PaginationCriteria paginationCriteria) {
+        Integer size = paginationCriteria.getSize();
+        if (size == null || size < 1) {
+            throw new BadRequestException("Size must be greater than 0!");
+        }
+
+        String sortBy = paginationCriteria.getSortBy();
+        Sort.Direction direction = Sort.Direction.fromOptionalString(paginationCriteria.getSort())
+            .orElse(Sort.Direction.ASC);
+        PageCursor cursor = StringUtils.hasText(paginationCriteria.getCursor())
+            ? PageCursor.decode(paginationCriteria.getCursor(), sortBy, direction) : null;
+
+        Sort sort = Sort.by(direction, sortBy);
+        if (!"id".equals(sortBy)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+
+        List<User> users = userRepository.findAll(new UserFilterSpecification(criteria, cursor), sort, 0, size + 1);
+        boolean hasNext = users.size() > size;
+
+        return new SliceImpl<>(hasNext ? users.subList(0, size) : users, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    /**
+     * Count users matching the criteria.
+     *
+     * @param criteria UserCriteria
+     * @return long
      */
-    public Page<User> findAll(UserCriteria criteria, PaginationCriteria paginationCriteria) {
-        return userRepository.findAll(new UserFilterSpecification(criteria),
-            PageRequestBuilder.build(paginationCriteria));
+    public long count(UserCriteria criteria) {
+        return userRepository.count(new UserFilterSpecification(criteria));
     }
 
     /**
@@ -153,25 +226,27 @@ public class UserService {
      * @throws UsernameNotFoundException email not found exception.
      */
     public UserDetails loadUserByEmail(final String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
-                new String[]{messageSourceService.get("user")})));
-
-        return JwtUserDetails.create(user);
+        return JwtUserDetails.createWithUser(findByEmail(email));
     }
 
     /**
-     * Loads user details by UUID string.
+     * Loads user details by UUID string. Details are served from the near cache when possible; otherwise the loaded
+     * user is kept on the principal as the request snapshot.
      *
      * @param id String
      * @return UserDetails
      */
     public UserDetails loadUserById(final String id) {
-        User user = userRepository.findById(UUID.fromString(id))
-            .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
-                new String[]{messageSourceService.get("user")})));
+        JwtUserDetails cached = userDetailsCacheService.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = userDetailsCacheService.getGeneration(id);
+        User user = findById(id);
+        userDetailsCacheService.put(id, JwtUserDetails.create(user), generation);
 
-        return JwtUserDetails.create(user);
+        return JwtUserDetails.createWithUser(user);
     }
 
     /**
@@ -185,19 +260,22 @@ public class UserService {
     }
 
     /**
-     * Register user.
+     * Register user. The password is hashed before the transaction is opened.
      *
      * @param request RegisterRequest
      * @return User
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public User register(final RegisterRequest request) throws BindException {
         log.info("Registering user with email: {}", request.getEmail());
 
         User user = createUser(request);
-        user.setRoles(List.of(roleService.findByName(Constants.RoleEnum.USER)));
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            user.setRoles(List.of(roleService.findByName(Constants.RoleEnum.USER)));
+            userRepository.save(user);
 
-        emailVerificationEventPublisher(user);
+            emailVerificationEventPublisher(user);
+        });
 
         log.info("User registered with email: {}, {}", user.getEmail(), user.getId());
 
@@ -205,18 +283,16 @@ public class UserService {
     }
 
     /**
-     * Create user.
+     * Create user. The password is hashed before the transaction is opened.
      *
      * @param request CreateUserRequest
      * @return User
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public User create(final CreateUserRequest request) throws BindException {
         log.info("Creating user with email: {}", request.getEmail());
 
         User user = createUser(request);
-        request.getRoles().forEach(role -> user.getRoles()
-            .add(roleService.findByName(Constants.RoleEnum.get(role))));
-
         if (request.getIsEmailVerified() != null && request.getIsEmailVerified()) {
             user.setEmailVerifiedAt(LocalDateTime.now());
         }
@@ -225,7 +301,11 @@ public class UserService {
             user.setBlockedAt(LocalDateTime.now());
         }
 
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            request.getRoles().forEach(role -> user.getRoles()
+                .add(roleService.findByName(Constants.RoleEnum.get(role))));
+            userRepository.save(user);
+        });
 
         log.info("User created with email: {}, {}", user.getEmail(), user.getId());
 
@@ -233,37 +313,43 @@ public class UserService {
     }
 
     /**
-     * Update user.
+     * Update user. A new password is hashed before the transaction is opened.
      *
      * @param id      UUID
      * @param request UpdateUserRequest
      * @return User
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public User update(UUID id, UpdateUserRequest request) throws BindException {
-        User user = findById(id);
-        user.setEmail(request.getEmail());
-        user.setName(request.getName());
-        user.setLastName(request.getLastName());
+        String password = StringUtils.hasText(request.getPassword()) ? passwordEncoder.encode(request.getPassword())
+            : null;
 
-        if (StringUtils.hasText(request.getPassword())) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-        }
+        return inTransaction(() -> {
+            User user = findById(id);
+            user.setEmail(request.getEmail());
+            user.setName(request.getName());
+            user.setLastName(request.getLastName());
 
-        if (request.getRoles() != null) {
-            user.setRoles(request.getRoles().stream()
-                .map(role -> roleService.findByName(Constants.RoleEnum.get(role)))
-                .collect(Collectors.toList()));
-        }
+            if (password != null) {
+                user.setPassword(password);
+            }
 
-        if (request.getIsEmailVerified() != null) {
-            if (request.getIsEmailVerified()) {
-                user.setEmailVerifiedAt(LocalDateTime.now());
-            } else {
-                user.setEmailVerifiedAt(null);
+            if (request.getRoles() != null) {
+                user.setRoles(request.getRoles().stream()
+                    .map(role -> roleService.findByName(Constants.RoleEnum.get(role)))
+                    .collect(Collectors.toList()));
             }
-        }
 
-        return updateUser(user, request);
+            if (request.getIsEmailVerified() != null) {
+                if (request.getIsEmailVerified()) {
+                    user.setEmailVerifiedAt(LocalDateTime.now());
+                } else {
+                    user.setEmailVerifiedAt(null);
+                }
+            }
+
+            return updateUser(user, request);
+        });
     }
 
     /**
@@ -273,17 +359,20 @@ public class UserService {
      * @param request UpdateUserRequest
      * @return User
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public User update(String id, UpdateUserRequest request) throws BindException {
         return update(UUID.fromString(id), request);
     }
 
     /**
-     * Update user password.
+     * Update user password. The passwords are checked and hashed outside of a transaction, the hash is only replaced
+     * when it is still the one the old password was checked against.
      *
      * @param request UpdatePasswordRequest
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public User updatePassword(UpdatePasswordRequest request) throws BindException {
-        User user = getUser();
+        User user = resolveUser(true);
         log.info("Updating password for user with email: {}", user.getEmail());
 
         BindingResult bindingResult = new BeanPropertyBindingResult(request, "request");
@@ -301,34 +390,72 @@ public class UserService {
             throw new BindException(bindingResult);
         }
 
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        userRepository.save(user);
+        String password = passwordEncoder.encode(request.getPassword());
+        if (userRepository.updatePassword(user.getId(), password, user.getPassword()) == 0) {
+            bindingResult.addError(new FieldError(bindingResult.getObjectName(), "oldPassword",
+                messageSourceService.get("invalid_old_password")));
+            throw new BindException(bindingResult);
+        }
+
+        user.setPassword(password);
+        userDetailsCacheService.invalidate(user.getId());
         log.info("Password updated for user with email: {}", user.getEmail());
 
         return user;
     }
 
     /**
-     * Reset password.
+     * Reset password. The token is checked and the password is hashed before the transaction is opened, the token is
+     * checked again in the transaction, so a token used in the meantime is not accepted twice.
      *
      * @param token String
      * @param request ResetPasswordRequest
      */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void resetPassword(String token, ResetPasswordRequest request) {
         User user = passwordResetTokenService.getUserByToken(token);
         log.info("Resetting password for user with email: {}", user.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-
-        userRepository.save(user);
-        passwordResetTokenService.deleteByUserId(user.getId());
+        String password = passwordEncoder.encode(request.getPassword());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User tokenUser = passwordResetTokenService.getUserByToken(token);
+            tokenUser.setPassword(password);
+            userRepository.save(tokenUser);
+            passwordResetTokenService.deleteByUserId(tokenUser.getId());
+        });
+        userDetailsCacheService.invalidate(user.getId());
         log.info("Password reset for user with email: {}", user.getEmail());
     }
 
+    /**
+     * Rehash the password with the current encoder settings. Hashing runs outside of a transaction, the hash is only
+     * replaced when it is still the one the password was verified against, so a password change in between wins.
+     *
+     * @param id               UUID
+     * @param password         String raw password that matched the previous hash
+     * @param previousPassword String previous hash
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void upgradePassword(final UUID id, final String password, final String previousPassword) {
+        String encoded;
+        try {
+            encoded = passwordEncoder.encode(password);
+        } catch (ServiceUnavailableException e) {
+            log.warn("Password hashing is busy, the hash of user {} is upgraded on a later login", id);
+            return;
+        }
+
+        if (userRepository.updatePassword(id, encoded, previousPassword) > 0) {
+            userDetailsCacheService.invalidate(id);
+            log.info("Password hash upgraded for user: {}", id);
+        }
+    }
+
     /**
      * Resend e-mail verification mail.
      */
     public void resendEmailVerificationMail() {
-        User user = getUser();
+        User user = resolveUser(true);
         log.info("Resending e-mail verification mail to email: {}", user.getEmail());
         if (user.getEmailVerifiedAt() != null) {
             throw new BadRequestException(messageSourceService.get("your_email_already_verified"));
@@ -348,6 +475,7 @@ public class UserService {
         User user = emailVerificationTokenService.getUserByToken(token);
         user.setEmailVerifiedAt(LocalDateTime.now());
         userRepository.save(user);
+        userDetailsCacheService.invalidate(user.getId());
 
         emailVerificationTokenService.deleteByUserId(user.getId());
         log.info("E-mail verified with token: {}", token);
@@ -374,11 +502,40 @@ public class UserService {
      * @param id UUID
      */
     public void delete(String id) {
-        userRepository.delete(findById(id));
+        User user = findById(id);
+        userRepository.delete(user);
+        userDetailsCacheService.invalidate(user.getId());
     }
 
     /**
-     * Create user.
+     * Return the authenticated user.
+     *
+     * @param managed true to load a managed entity for changes instead of reusing the request snapshot
+     * @return User
+     */
+    private User resolveUser(final boolean managed) {
+        Authentication authentication = getAuthentication();
+        if (authentication.isAuthenticated()) {
+            try {
+                JwtUserDetails principal = getPrincipal(authentication);
+                if (!managed && principal.getUser() != null) {
+                    return principal.getUser();
+                }
+
+                return findById(principal.getId());
+            } catch (ClassCastException | NotFoundException e) {
+                log.warn("[JWT] User details not found!");
+                throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
+            }
+        } else {
+            log.warn("[JWT] User not authenticated!");
+            throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
+        }
+    }
+
+    /**
+     * Create user. The e-mail is checked before the password is hashed, the unique constraint covers an e-mail taken
+     * in the meantime.
      *
      * @param request AbstractBaseCreateUserRequest
      * @return User
@@ -439,6 +596,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        userDetailsCacheService.invalidate(user.getId());
 
         if (isRequiredEmailVerification) {
             emailVerificationEventPublisher(user);
@@ -447,6 +605,27 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Run the work in a short transaction. A BindException rolls the transaction back and reaches the caller.
+     *
+     * @param work TransactionalWork
+     * @param <T>  result type
+     * @return T
+     */
+    private <T> T inTransaction(final TransactionalWork<T> work) throws BindException {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return work.run();
+                } catch (BindException e) {
+                    throw new BindExceptionHolder(e);
+                }
+            });
+        } catch (BindExceptionHolder e) {
+            throw e.bindException;
+        }
+    }
+
     /**
      * E-mail verification event publisher.
      *
@@ -466,4 +645,21 @@ public class UserService {
         user.setPasswordResetToken(passwordResetTokenService.create(user));
         eventPublisher.publishEvent(new UserPasswordResetSendEvent(this, user));
     }
+
+    @FunctionalInterface
+    private interface TransactionalWork<T> {
+        T run() throws BindException;
+    }
+
+    /**
+     * Carries a BindException out of a transaction callback.
+     */
+    private static final class BindExceptionHolder extends RuntimeException {
+        private final transient BindException bindException;
+
+        BindExceptionHolder(final BindException bindException) {
+            super(bindException);
+            this.bindException = bindException;
+        }
+    }
 }
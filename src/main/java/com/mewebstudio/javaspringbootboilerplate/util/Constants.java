@@ -3,6 +3,9 @@ package com.mewebstudio.javaspringbootboilerplate.util;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public final class Constants {
@@ -29,13 +32,58 @@ public final class Constants {
         ADMIN("ADMIN"),
         USER("USER");
 
+        private static final Map<String, RoleEnum> LOOKUP = Stream.of(RoleEnum.values())
+            .flatMap(role -> Stream.of(Map.entry(role.name(), role), Map.entry(role.getValue(), role)))
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first));
+
         private final String value;
 
         public static RoleEnum get(final String name) {
-            return Stream.of(RoleEnum.values())
-                .filter(p -> p.name().equals(name.toUpperCase()) || p.getValue().equals(name.toUpperCase()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid role name: %s", name)));
+            RoleEnum role = LOOKUP.get(name);
+            if (role == null) {
+                role = LOOKUP.get(name.toUpperCase(Locale.ROOT));
+            }
+
+            if (role == null) {
+                throw new IllegalArgumentException(String.format("Invalid role name: %s", name));
+            }
+
+            return role;
         }
     }
+
+    @Getter
+    @AllArgsConstructor
+    public enum MailTypeEnum {
+        EMAIL_VERIFICATION("mail/user-email-verification", "email_verification"),
+        PASSWORD_RESET("mail/user-reset-password", "password_reset");
+
+        private final String template;
+
+        private final String subject;
+    }
+
+    public enum MailOutboxStatusEnum {
+        PENDING,
+        PROCESSING,
+        SENT,
+        DEAD
+    }
+
+    public enum CountModeEnum {
+        EXACT,
+        ESTIMATED,
+        NONE
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum ExportFormatEnum {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+    }
 }
@@ -0,0 +1,224 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small bounded, TTL based in-process cache. Reads do not take a lock, entries live in a concurrent map and a hit
+ * only marks its entry as referenced. When the cache is full entries are evicted in insertion order, giving the
+ * referenced ones a second chance (CLOCK), which approximates least recently used. Expired entries are removed
+ * lazily when they are read.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class LocalCache<K, V> {
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry<K, V>> order = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger ordered = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Local cache constructor.
+     *
+     * @param maxSize int maximum number of entries
+     * @param ttl     Duration time to live of an entry
+     */
+    public LocalCache(final int maxSize, final Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be greater than 0!");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param key K
+     * @return V or null when the key is missing or expired
+     */
+    public V get(final K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.value;
+        }
+
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+
+        return null;
+    }
+
+    /**
+     * Get a value or load and cache it. The loader runs outside of the cache.
+     *
+     * @param key    K
+     * @param loader Function to load the value, may return null
+     * @return V
+     */
+    public V get(final K key, final Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Put a value with the default time to live.
+     *
+     * @param key   K
+     * @param value V
+     */
+    public void put(final K key, final V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Put a value that expires at the given time, bounded by the default time to live.
+     *
+     * @param key       K
+     * @param value     V
+     * @param expiresAt long epoch milliseconds
+     */
+    public void put(final K key, final V value, final long expiresAt) {
+        Entry<K, V> entry = new Entry<>(key, value, Math.min(expiresAt, System.currentTimeMillis() + ttlMillis));
+        entries.put(key, entry);
+        order.offer(entry);
+        ordered.incrementAndGet();
+        evict();
+    }
+
+    /**
+     * Invalidate a key.
+     *
+     * @param key K
+     */
+    public void invalidate(final K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Invalidate all keys.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Number of entries, including the expired ones that are not read yet.
+     *
+     * @return int
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Register hit, miss, eviction and size meters with the common cache metric names.
+     *
+     * @param registry MeterRegistry
+     * @param name     String cache name tag
+     * @return LocalCache
+     */
+    public LocalCache<K, V> bindTo(final MeterRegistry registry, final String name) {
+        FunctionCounter.builder("cache.gets", this, LocalCache::getHitCount)
+            .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", this, LocalCache::getMissCount)
+            .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", this, LocalCache::getEvictionCount)
+            .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", this, LocalCache::size)
+            .tag("cache", name).register(registry);
+
+        return this;
+    }
+
+    /**
+     * Evict entries while the cache is over its size, and drop the order nodes of replaced or removed entries once
+     * they outnumber the live ones. The scan is bounded, so concurrent puts can not keep a caller looping.
+     */
+    private void evict() {
+        int budget = 2 * ordered.get() + 1;
+        while (budget-- > 0 && (entries.size() > maxSize || ordered.get() > 2 * maxSize)) {
+            Entry<K, V> entry = order.poll();
+            if (entry == null) {
+                return;
+            }
+
+            ordered.decrementAndGet();
+            if (entries.get(entry.key) != entry) {
+                continue;
+            }
+
+            if (entries.size() <= maxSize || entry.referenced) {
+                entry.referenced = false;
+                order.offer(entry);
+                ordered.incrementAndGet();
+            } else if (entries.remove(entry.key, entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private volatile boolean referenced;
+
+        private Entry(final K key, final V value, final long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
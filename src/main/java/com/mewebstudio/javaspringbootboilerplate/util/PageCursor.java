@@ -0,0 +1,110 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.AbstractBaseEntity;
+import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
+import lombok.Getter;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset pagination cursor. It carries the sort column, the direction and the sort value and id of the last
+ * row of a page, the next page starts right after that row.
+ */
+@Getter
+public final class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private static final int PARTS = 4;
+
+    private final String sortBy;
+
+    private final Direction direction;
+
+    private final UUID id;
+
+    private final String value;
+
+    /**
+     * Page cursor constructor.
+     *
+     * @param sortBy    String
+     * @param direction Direction
+     * @param id        UUID of the last row
+     * @param value     String sort value of the last row
+     */
+    public PageCursor(final String sortBy, final Direction direction, final UUID id, final String value) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Create a cursor pointing after the given row.
+     *
+     * @param sortBy    String
+     * @param direction Direction
+     * @param entity    AbstractBaseEntity last row of the page
+     * @return PageCursor
+     */
+    public static PageCursor of(final String sortBy, final Direction direction, final AbstractBaseEntity entity) {
+        Object value = PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue(sortBy);
+
+        return new PageCursor(sortBy, direction, entity.getId(), value == null ? "" : value.toString());
+    }
+
+    /**
+     * Encoded cursor of the next slice, the sort column and direction are taken from the first order of the slice.
+     *
+     * @param slice Slice
+     * @return String or null when there is no next slice
+     */
+    public static String next(final Slice<? extends AbstractBaseEntity> slice) {
+        if (!slice.hasNext() || !slice.hasContent() || slice.getSort().isUnsorted()) {
+            return null;
+        }
+
+        Sort.Order order = slice.getSort().iterator().next();
+
+        return of(order.getProperty(), order.getDirection(), slice.getContent().get(slice.getNumberOfElements() - 1))
+            .encode();
+    }
+
+    /**
+     * Decode a cursor created for the same sort column and direction.
+     *
+     * @param cursor    String
+     * @param sortBy    String
+     * @param direction Direction
+     * @return PageCursor
+     */
+    public static PageCursor decode(final String cursor, final String sortBy, final Direction direction) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split("\\" + SEPARATOR, PARTS);
+            if (parts.length == PARTS && parts[0].equals(sortBy) && parts[1].equals(direction.name())) {
+                return new PageCursor(parts[0], direction, UUID.fromString(parts[2]), parts[3]);
+            }
+        } catch (IllegalArgumentException e) {
+            // handled below
+        }
+
+        throw new BadRequestException("Cursor is not valid!");
+    }
+
+    /**
+     * Encode the cursor.
+     *
+     * @return String
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+            String.join(SEPARATOR, sortBy, direction.name(), id.toString(), value).getBytes(StandardCharsets.UTF_8));
+    }
+}
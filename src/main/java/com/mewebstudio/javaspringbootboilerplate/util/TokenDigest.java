@@ -0,0 +1,26 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+public final class TokenDigest {
+    private TokenDigest() {
+    }
+
+    /**
+     * SHA-256 digest of a token as an unpadded base64url string, suitable to be used in a key.
+     *
+     * @param token String
+     * @return String
+     */
+    public static String sha256(final String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported!", e);
+        }
+    }
+}
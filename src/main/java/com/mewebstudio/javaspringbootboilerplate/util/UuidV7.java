@@ -0,0 +1,44 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): a 48-bit unix millisecond timestamp, a 12-bit sequence that keeps the ids
+ * of one process increasing within the same millisecond, and 62 random bits.
+ */
+public final class UuidV7 {
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long SEQUENCE_MASK = 0xFFFL;
+
+    private static final long VERSION = 0x7000L;
+
+    private static final long VARIANT = 0x8000000000000000L;
+
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final AtomicLong STATE = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    /**
+     * Generate an id. A sequence overflow borrows the next millisecond, so ids never go backwards, even when the
+     * clock does.
+     *
+     * @return UUID
+     */
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long state = STATE.updateAndGet(previous -> Math.max(now, previous + 1));
+
+        long mostSigBits = ((state >>> SEQUENCE_BITS) << 16) | VERSION | (state & SEQUENCE_MASK);
+        long leastSigBits = (RANDOM.nextLong() & RANDOM_MASK) | VARIANT;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
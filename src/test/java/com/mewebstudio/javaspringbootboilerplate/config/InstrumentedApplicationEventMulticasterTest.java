@@ -0,0 +1,78 @@
+package com.mewebstudio.javaspringbootboilerplate.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for InstrumentedApplicationEventMulticaster")
+class InstrumentedApplicationEventMulticasterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InstrumentedApplicationEventMulticaster multicaster;
+
+    @BeforeEach
+    void setUp() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("test-event-");
+        executor.setRejectedExecutionHandler(new CallerRunsCountingPolicy());
+        executor.initialize();
+        multicaster = new InstrumentedApplicationEventMulticaster(executor);
+        multicaster.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        multicaster.destroy();
+    }
+
+    @Test
+    @DisplayName("Listener runs on the executor and its latency is recorded")
+    void given_whenMulticastEvent_thenRunOnExecutorAndRecordLatency() throws Exception {
+        // Given
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        ApplicationListener<PayloadApplicationEvent<String>> listener =
+            event -> thread.complete(Thread.currentThread().getName());
+        multicaster.addApplicationListener(listener);
+        // When
+        multicaster.multicastEvent(new PayloadApplicationEvent<>(this, "payload"));
+        // Then
+        assertTrue(thread.get(5, TimeUnit.SECONDS).startsWith("test-event-"));
+        multicaster.destroy();
+        assertNotNull(meterRegistry.find("application.events.listener").timer());
+        assertEquals(1, meterRegistry.find("application.events.listener").timer().count());
+        assertNotNull(meterRegistry.find("executor.queued").tag("name", "applicationEvents").gauge());
+    }
+
+    @Test
+    @DisplayName("Rejected task runs on the caller and is counted")
+    void given_whenRejected_thenRunOnCallerAndCount() {
+        // Given
+        CallerRunsCountingPolicy policy = new CallerRunsCountingPolicy();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+        String[] thread = new String[1];
+        // When
+        policy.rejectedExecution(() -> thread[0] = Thread.currentThread().getName(), executor.getThreadPoolExecutor());
+        // Then
+        assertEquals(Thread.currentThread().getName(), thread[0]);
+        assertEquals(1, policy.getRejectedCount());
+        executor.destroy();
+    }
+}
@@ -9,6 +9,7 @@ import com.mewebstudio.javaspringbootboilerplate.dto.response.auth.PasswordReset
 import com.mewebstudio.javaspringbootboilerplate.dto.response.auth.TokenResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtSigningKeys;
 import com.mewebstudio.javaspringbootboilerplate.service.AuthService;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.PasswordResetTokenService;
@@ -23,10 +24,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.validation.BindException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +57,9 @@ class AuthControllerTest {
     @Mock
     private MessageSourceService messageSourceService;
 
+    @Mock
+    private JwtSigningKeys jwtSigningKeys;
+
     private final LoginRequest loginRequest = Instancio.create(LoginRequest.class);
 
     private final TokenResponse tokenResponse = Instancio.create(TokenResponse.class);
@@ -186,4 +197,40 @@ class AuthControllerTest {
         assertEquals("successfully", response.getBody().getMessage());
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
+
+    @Test
+    @DisplayName("Test for jwks")
+    void given_whenJwks_thenAssertBody() {
+        // Given
+        Map<String, Object> jwks = Map.of("keys", List.of());
+        when(jwtSigningKeys.getJwks()).thenReturn(jwks);
+        when(jwtSigningKeys.getJwksETag()).thenReturn("\"etag\"");
+        when(jwtSigningKeys.getJwksMaxAge()).thenReturn(60L);
+        // When
+        ResponseEntity<Map<String, Object>> response = authController.jwks(
+            new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+        // Then
+        assertNotNull(response);
+        assertEquals(jwks, response.getBody());
+        assertEquals("\"etag\"", response.getHeaders().getETag());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    @DisplayName("Test for jwks not modified")
+    void given_whenJwksWithMatchingETag_thenReturnNotModified() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/.well-known/jwks.json");
+        request.addHeader("If-None-Match", "\"etag\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        when(jwtSigningKeys.getJwksETag()).thenReturn("\"etag\"");
+        when(jwtSigningKeys.getJwksMaxAge()).thenReturn(60L);
+        // When
+        ResponseEntity<Map<String, Object>> response = authController.jwks(new ServletWebRequest(request, servletResponse));
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"etag\"", response.getHeaders().getETag());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+    }
 }
@@ -10,8 +10,11 @@ import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.U
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserExportService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserImportService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.PageCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,26 +24,41 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @Tag("unit")
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +73,12 @@ class UserControllerTest {
     @Mock
     private MessageSourceService messageSourceService;
 
+    @Mock
+    private UserExportService userExportService;
+
+    @Mock
+    private UserImportService userImportService;
+
     @Mock
     HttpServletRequest request;
 
@@ -79,7 +103,7 @@ class UserControllerTest {
                 .thenReturn(page);
             // When
             ResponseEntity<UsersPaginationResponse> response = userController.list(roles, null,
-                null, null, null, null, null, null, null, null);
+                null, null, null, null, null, null, null, null, null, false, "exact");
             // Then
             assertNotNull(response);
             assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -93,13 +117,76 @@ class UserControllerTest {
             assertEquals(user.getLastName(), response.getBody().getItems().get(0).getLastName());
         }
 
+        @Test
+        @DisplayName("Without a count the total is omitted")
+        void given_whenListWithoutCount_thenOmitTotal() {
+            // Given
+            when(userService.findAll(any(UserCriteria.class), any(PaginationCriteria.class)))
+                .thenReturn(new SliceImpl<>(List.of(user), PageRequest.of(0, 20), false));
+            // When
+            ResponseEntity<UsersPaginationResponse> response = userController.list(roles, null,
+                null, null, null, null, 1, 20, "createdAt", "asc", null, false, "none");
+            // Then
+            assertNotNull(response.getBody());
+            assertEquals(1, response.getBody().getPage());
+            assertNull(response.getBody().getPages());
+            assertNull(response.getBody().getTotal());
+            assertEquals(1, response.getBody().getItems().size());
+        }
+
+        @Test
+        @DisplayName("Cursor mode")
+        void given_whenListWithCursor_thenAssertBody() {
+            // Given
+            Slice<User> slice = new SliceImpl<>(List.of(user), PageRequest.of(0, 1, Sort.by("createdAt")), true);
+            when(userService.findAllByCursor(any(UserCriteria.class), any(PaginationCriteria.class)))
+                .thenReturn(slice);
+            // When
+            ResponseEntity<UsersPaginationResponse> response = userController.list(roles, null,
+                null, null, null, null, null, 1, "createdAt", "asc", "", false, null);
+            // Then
+            assertNotNull(response.getBody());
+            assertNull(response.getBody().getPage());
+            assertNull(response.getBody().getTotal());
+            assertEquals(PageCursor.next(slice), response.getBody().getNextCursor());
+            assertEquals(user.getId().toString(), response.getBody().getItems().get(0).getId());
+            verify(userService, never()).count(any(UserCriteria.class));
+        }
+
+        @Test
+        @DisplayName("Relevance sort is handled by the search")
+        void given_whenListSortedByRelevance_thenSortByRelevance() {
+            // Given
+            when(userService.findAll(any(UserCriteria.class), any(PaginationCriteria.class)))
+                .thenReturn(new PageImpl<>(List.of(user)));
+            ArgumentCaptor<UserCriteria> criteria = ArgumentCaptor.forClass(UserCriteria.class);
+            ArgumentCaptor<PaginationCriteria> paginationCriteria = ArgumentCaptor.forClass(PaginationCriteria.class);
+            // When
+            userController.list(roles, null, null, null, null, "lorem", 1, 20, "relevance", "asc", null, false, "exact");
+            // Then
+            verify(userService).findAll(criteria.capture(), paginationCriteria.capture());
+            assertTrue(criteria.getValue().getSortByRelevance());
+            assertNull(paginationCriteria.getValue().getSortBy());
+        }
+
+        @Test
+        @DisplayName("When blockedAt is the sort column in cursor mode then throw BadRequestException")
+        void given_whenListWithCursorSortedByBlockedAt_thenThrowBadRequestException() {
+            // When
+            Executable executable = () -> userController.list(roles, null,
+                null, null, null, null, null, null,
+                "blockedAt", null, "", false, null);
+            // Then
+            assertThrows(BadRequestException.class, executable);
+        }
+
         @Test
         @DisplayName("When invalid sortBy parameter then throw BadRequestException")
         void given_whenInvalidSortColumn_thenThrowBadRequestException() {
             // When
             Executable executable = () -> userController.list(roles, null,
                 null, null, null, null, null, null,
-                "invalid", null);
+                "invalid", null, null, false, "exact");
             // Then
             assertThrows(BadRequestException.class, executable);
             assertEquals(messageSourceService.get("invalid_sort_column"),
@@ -242,4 +329,29 @@ class UserControllerTest {
             assertThrows(NotFoundException.class, executable);
         }
     }
+
+    @Nested
+    @DisplayName("Test class for users export scenarios")
+    class ExportTest {
+        @Test
+        @DisplayName("Export outlasting the MVC async timeout is streamed to the end")
+        void given_whenExportIsSlow_thenUseExportTimeout() throws Exception {
+            // Given
+            MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController).setAsyncRequestTimeout(50).build();
+            when(userExportService.getTimeout()).thenReturn(60_000L);
+            doAnswer(invocation -> {
+                Thread.sleep(200);
+                invocation.<OutputStream>getArgument(3).write("{}\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(userExportService).export(any(), any(), any(), any());
+            // When
+            MvcResult result = mockMvc.perform(get("/admin/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            result.getAsyncResult(5_000);
+            // Then
+            assertEquals(60_000L, result.getRequest().getAsyncContext().getTimeout());
+            assertEquals("{}\n", result.getResponse().getContentAsString());
+        }
+    }
 }
@@ -11,6 +11,7 @@ import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.exception.AppExceptionHandler;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.exception.RefreshTokenExpiredException;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtSigningKeys;
 import com.mewebstudio.javaspringbootboilerplate.service.AuthService;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.PasswordResetTokenService;
@@ -67,6 +68,9 @@ class AuthControllerMvcIT {
     @MockBean
     private MessageSourceService messageSourceService;
 
+    @MockBean
+    private JwtSigningKeys jwtSigningKeys;
+
     private MockMvc mockMvc;
 
     private final TokenResponse tokenResponse = Instancio.create(TokenResponse.class);
@@ -1,7 +1,8 @@
 package com.mewebstudio.javaspringbootboilerplate.event;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
-import com.mewebstudio.javaspringbootboilerplate.service.MailSenderService;
+import com.mewebstudio.javaspringbootboilerplate.service.MailOutboxService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.UUID;
+
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -21,7 +24,10 @@ class ListenerTest {
     private Listener listener;
 
     @Mock
-    private MailSenderService mailSenderService;
+    private MailOutboxService mailOutboxService;
+
+    @Mock
+    private UserService userService;
 
     @BeforeEach
     public void setUp() {
@@ -37,6 +43,30 @@ class ListenerTest {
         // When
         listener.onUserEmailVerificationSendEvent(event);
         // Then
-        verify(mailSenderService, times(1)).sendUserEmailVerification(user);
+        verify(mailOutboxService, times(1)).enqueueUserEmailVerification(user);
+    }
+
+    @Test
+    @DisplayName("Test onUserPasswordResetSendEvent method")
+    void given_whenOnUserPasswordResetSendEvent_thenAssertBody() {
+        // Given
+        User user = Instancio.create(User.class);
+        UserPasswordResetSendEvent event = new UserPasswordResetSendEvent(this, user);
+        // When
+        listener.onUserPasswordResetSendEvent(event);
+        // Then
+        verify(mailOutboxService, times(1)).enqueueUserPasswordReset(user);
+    }
+
+    @Test
+    @DisplayName("Test onUserPasswordUpgradeEvent method")
+    void given_whenOnUserPasswordUpgradeEvent_thenUpgradePassword() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UserPasswordUpgradeEvent event = new UserPasswordUpgradeEvent(this, userId, "P@sswd123.", "old");
+        // When
+        listener.onUserPasswordUpgradeEvent(event);
+        // Then
+        verify(userService, times(1)).upgradePassword(userId, "P@sswd123.", "old");
     }
 }
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -178,6 +179,20 @@ class AppExceptionHandlerTest {
         assertEquals(exception.getMessage(), Objects.requireNonNull(response.getBody()).getMessage());
     }
 
+    @Test
+    @DisplayName("Test handleServiceUnavailableException for Exception")
+    void testHandleServiceUnavailableException() {
+        // Given
+        ServiceUnavailableException exception = new ServiceUnavailableException(3);
+        when(messageSourceService.get("server_busy")).thenReturn("Server is busy");
+        // When
+        ResponseEntity<ErrorResponse> response = appExceptionHandler.handleServiceUnavailableException(exception);
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Server is busy", Objects.requireNonNull(response.getBody()).getMessage());
+    }
+
     @Test
     @DisplayName("Test handleAllExceptions for Exception")
     void testHandleAllExceptions() {
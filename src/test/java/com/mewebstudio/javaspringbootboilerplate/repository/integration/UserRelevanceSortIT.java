@@ -0,0 +1,103 @@
+package com.mewebstudio.javaspringbootboilerplate.repository.integration;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.service.EmailVerificationTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
+import com.mewebstudio.javaspringbootboilerplate.service.PasswordResetTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.RoleService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserCountService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserDetailsCacheService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relevance order of the user search, it needs the PostgreSQL database of the application with pg_trgm.
+ */
+@Tag("postgresIT")
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Relevance sort tests for the user search")
+class UserRelevanceSortIT {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        UserCountService userCountService = mock(UserCountService.class);
+        when(userCountService.count(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        userService = new UserService(userRepository, mock(PasswordEncoder.class), mock(RoleService.class),
+            mock(EmailVerificationTokenService.class), mock(PasswordResetTokenService.class),
+            mock(UserDetailsCacheService.class), mock(ApplicationEventPublisher.class),
+            mock(MessageSourceService.class), userCountService, mock(TransactionTemplate.class));
+
+        // Inserted from the least to the most relevant, so insertion order does not hide a missing sort
+        persist("johnathan.smithson@example.com", "Johnathan", "Smithson");
+        persist("johnny.smith@example.com", "Johnny", "Smith");
+        persist("john.smith@example.com", "John", "Smith");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Relevance search keeps the similarity order of the specification")
+    void given_whenFindAllByRelevance_thenOrderBySimilarity() {
+        // Given
+        UserCriteria criteria = UserCriteria.builder().q("john").sortByRelevance(true).build();
+        PaginationCriteria paginationCriteria = PaginationCriteria.builder()
+            .page(1)
+            .size(2)
+            .columns(new String[]{"createdAt"})
+            .countMode(Constants.CountModeEnum.NONE)
+            .build();
+        // When
+        List<String> emails = userService.findAll(criteria, paginationCriteria).getContent().stream()
+            .map(User::getEmail)
+            .toList();
+        // Then
+        assertEquals(List.of("john.smith@example.com", "johnny.smith@example.com"), emails);
+    }
+
+    private void persist(final String email, final String name, final String lastName) {
+        entityManager.persist(User.builder()
+            .email(email)
+            .password("secret")
+            .name(name)
+            .lastName(lastName)
+            .build());
+    }
+}
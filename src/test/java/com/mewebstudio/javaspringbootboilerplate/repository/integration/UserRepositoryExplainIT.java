@@ -0,0 +1,121 @@
+package com.mewebstudio.javaspringbootboilerplate.repository.integration;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plan regression tests of the user list query, they need the PostgreSQL database of the application.
+ */
+@Tag("postgresIT")
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.mewebstudio.javaspringbootboilerplate.repository.integration.UserRepositoryExplainIT$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Explain plan tests for the user list query")
+class UserRepositoryExplainIT {
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // An empty table is always cheaper to scan, only check that the index can serve the order
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        SqlCapture.last = null;
+    }
+
+    @Test
+    @DisplayName("Default createdAt sort is served by an index scan")
+    void given_whenListByCreatedAt_thenUseIndexScan() {
+        // When
+        String plan = explain(UserCriteria.builder().build(), LIMIT);
+        // Then
+        assertTrue(plan.contains("idx_users_created_at_id"), plan);
+        assertFalse(plan.contains("\"Sort\""), plan);
+    }
+
+    @Test
+    @DisplayName("Roles filter keeps the index order")
+    void given_whenListByRoles_thenUseIndexScanWithoutSort() {
+        // When
+        String plan = explain(UserCriteria.builder().roles(List.of(Constants.RoleEnum.ADMIN)).build(),
+            Constants.RoleEnum.ADMIN.name(), LIMIT);
+        // Then
+        assertTrue(plan.contains("idx_users_created_at_id"), plan);
+        assertFalse(plan.contains("\"Sort\""), plan);
+    }
+
+    /**
+     * Run the list query, then explain the captured SQL with the same parameters.
+     *
+     * @param criteria   UserCriteria
+     * @param parameters Object[] bind parameters in order
+     * @return String JSON plan
+     */
+    private String explain(UserCriteria criteria, Object... parameters) {
+        userRepository.findAll(new UserFilterSpecification(criteria), Sort.by("createdAt"), 0, LIMIT);
+        assertNotNull(SqlCapture.last);
+
+        StringBuilder sql = new StringBuilder();
+        int index = 0;
+        for (char c : SqlCapture.last.toCharArray()) {
+            if (c == '?') {
+                sql.append('$').append(++index);
+            } else {
+                sql.append(c);
+            }
+        }
+
+        jdbcTemplate.execute("PREPARE user_list AS " + sql);
+        try {
+            String values = Arrays.stream(parameters)
+                .map(parameter -> parameter instanceof String ? "'" + parameter + "'" : String.valueOf(parameter))
+                .collect(Collectors.joining(", "));
+
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (FORMAT JSON) EXECUTE user_list(" + values + ")",
+                String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE user_list");
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static volatile String last;
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("\"users\"") && sql.toLowerCase().startsWith("select")) {
+                last = sql;
+            }
+
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mewebstudio.javaspringbootboilerplate.repository.integration;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.EmailVerificationToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fetch plan tests of the user lookups on the authentication path, they need the PostgreSQL database of the
+ * application.
+ */
+@Tag("postgresIT")
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Fetch plan tests for the user lookups")
+class UserRepositoryFetchIT {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(Role.builder().name(Constants.RoleEnum.USER).build());
+        user = entityManager.persist(User.builder()
+            .email("mail@example.com")
+            .password("secret")
+            .name("John")
+            .lastName("DOE")
+            .roles(List.of(role))
+            .build());
+        Date expirationDate = Date.from(Instant.now().plusSeconds(60));
+        entityManager.persist(EmailVerificationToken.builder().user(user).token("verification")
+            .expirationDate(expirationDate).build());
+        entityManager.persist(PasswordResetToken.builder().user(user).token("reset")
+            .expirationDate(expirationDate).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("User and roles are loaded by e-mail in one statement")
+    void given_whenFindByEmail_thenRunOneStatement() {
+        // When
+        User found = userRepository.findByEmail(user.getEmail()).orElseThrow();
+        // Then
+        assertTrue(Hibernate.isInitialized(found.getRoles()));
+        assertEquals(1, found.getRoles().size());
+        assertNull(found.getEmailVerificationToken());
+        assertNull(found.getPasswordResetToken());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("User and roles are loaded by id in one statement")
+    void given_whenFindById_thenRunOneStatement() {
+        // When
+        User found = userRepository.findById(user.getId()).orElseThrow();
+        // Then
+        assertTrue(Hibernate.isInitialized(found.getRoles()));
+        assertEquals(1, found.getRoles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,143 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for AccessLogFilter")
+class AccessLogFilterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RecordingAccessLogFilter accessLogFilter;
+
+    @AfterEach
+    void tearDown() {
+        accessLogFilter.release.countDown();
+        accessLogFilter.destroy();
+    }
+
+    @Test
+    @DisplayName("Request passes the chain whether it is logged or not")
+    void given_whenDoFilter_thenContinueChain() throws Exception {
+        // Given
+        accessLogFilter = new RecordingAccessLogFilter(1.0, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/me");
+        MockFilterChain filterChain = new MockFilterChain();
+        // When
+        accessLogFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        // Then
+        assertNotNull(filterChain.getRequest());
+        assertEquals(200, accessLogFilter.statuses.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Requests outside of the sample are not logged")
+    void given_whenSampleRateIsZero_thenSkipSuccessfulRequest() throws Exception {
+        // Given
+        accessLogFilter = new RecordingAccessLogFilter(0.0, 1);
+        // When
+        accessLogFilter.doFilter(new MockHttpServletRequest("GET", "/account/me"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        // Then
+        assertNull(accessLogFilter.statuses.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Server errors are always logged")
+    void given_whenServerError_thenLogOutsideOfSample() throws Exception {
+        // Given
+        accessLogFilter = new RecordingAccessLogFilter(0.0, 1);
+        FilterChain filterChain = (request, response) ->
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        // When
+        accessLogFilter.doFilter(new MockHttpServletRequest("GET", "/account/me"), new MockHttpServletResponse(),
+            filterChain);
+        // Then
+        assertEquals(503, accessLogFilter.statuses.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Exception escaping the chain is logged as a server error and rethrown")
+    void given_whenChainThrows_thenLogServerErrorAndRethrow() throws Exception {
+        // Given
+        accessLogFilter = new RecordingAccessLogFilter(0.0, 1);
+        FilterChain filterChain = (request, response) -> {
+            throw new ServletException("Boom");
+        };
+        // When
+        assertThrows(ServletException.class, () -> accessLogFilter.doFilter(
+            new MockHttpServletRequest("GET", "/account/me"), new MockHttpServletResponse(), filterChain));
+        // Then
+        assertEquals(500, accessLogFilter.statuses.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Entries that do not fit the queue are dropped and counted")
+    void given_whenQueueIsFull_thenDropAndCount() throws Exception {
+        // Given
+        accessLogFilter = new RecordingAccessLogFilter(1.0, 1);
+        accessLogFilter.block = true;
+        // When
+        for (int i = 0; i < 5; i++) {
+            accessLogFilter.doFilter(new MockHttpServletRequest("GET", "/account/me"), new MockHttpServletResponse(),
+                new MockFilterChain());
+            if (i == 0) {
+                assertTrue(accessLogFilter.writing.await(5, TimeUnit.SECONDS));
+            }
+        }
+        // Then
+        assertEquals(3.0, meterRegistry.get("http.access_log.dropped").counter().count());
+    }
+
+    /**
+     * Records the logged statuses instead of writing them, optionally holding the writer thread.
+     */
+    private class RecordingAccessLogFilter extends AccessLogFilter {
+        private final BlockingQueue<Integer> statuses = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private volatile boolean block;
+
+        RecordingAccessLogFilter(final double sampleRate, final int queueCapacity) {
+            super(sampleRate, queueCapacity, meterRegistry);
+        }
+
+        @Override
+        protected void write(final String method, final String uri, final int status, final long elapsed,
+                             final String remoteAddr) {
+            statuses.add(status);
+            if (block) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Tag("unit")
+@DisplayName("Unit tests for AuthorityMask")
+class AuthorityMaskTest {
+    @Test
+    @DisplayName("Every role has its own bit")
+    void given_whenOfRole_thenReturnDistinctBits() {
+        // When
+        long admin = AuthorityMask.of(Constants.RoleEnum.ADMIN);
+        long user = AuthorityMask.of(Constants.RoleEnum.USER);
+        // Then
+        assertEquals(0, admin & user);
+        assertEquals(admin | user, AuthorityMask.of("admin", "USER"));
+    }
+
+    @Test
+    @DisplayName("Granted authorities and role names compile to the same mask")
+    void given_whenOfAuthorities_thenMatchRoleNames() {
+        // When
+        long mask = AuthorityMask.of(List.of(new SimpleGrantedAuthority("ADMIN"), new SimpleGrantedAuthority("OTHER")));
+        // Then
+        assertEquals(AuthorityMask.of("ADMIN"), mask);
+        assertNotEquals(0, mask);
+    }
+
+    @Test
+    @DisplayName("Unknown roles add no bit")
+    void given_whenOfUnknownRole_thenReturnZero() {
+        assertEquals(0, AuthorityMask.of("XXX"));
+        assertEquals(0, AuthorityMask.of((List<SimpleGrantedAuthority>) null));
+    }
+}
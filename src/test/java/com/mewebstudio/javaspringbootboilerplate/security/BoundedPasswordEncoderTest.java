@@ -0,0 +1,96 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Passwords are hashed on the pool and timed")
+    void given_whenEncodeAndMatch_thenDelegateOnPool() {
+        // Given
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 2, 10, 1, meterRegistry);
+        when(delegate.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        // When
+        String encoded = passwordEncoder.encode("secret");
+        boolean matches = passwordEncoder.matches("secret", "hash");
+        // Then
+        assertTrue(encoded.startsWith("password-hash-"));
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Exceptions of the delegate reach the caller")
+    void given_whenDelegateThrows_thenRethrow() {
+        // Given
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 1, meterRegistry);
+        when(delegate.matches(any(), any())).thenThrow(new IllegalArgumentException("Invalid hash"));
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> passwordEncoder.matches("secret", "hash"));
+        // Then
+        assertEquals("Invalid hash", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Requests fail fast when the queue is full")
+    void given_whenQueueIsFull_thenThrowServiceUnavailable() throws Exception {
+        // Given
+        passwordEncoder = new BoundedPasswordEncoder(delegate, 1, 1, 5, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("secret")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("secret"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("secret"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hashing.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        // When
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+            () -> passwordEncoder.encode("secret"));
+        release.countDown();
+        // Then
+        assertEquals(5, exception.getRetryAfter());
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+}
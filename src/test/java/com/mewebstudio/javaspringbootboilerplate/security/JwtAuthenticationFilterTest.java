@@ -0,0 +1,131 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+    @InjectMocks
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private UserService userService;
+
+    private final User user = Instancio.create(User.class);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Authenticated request resolves the user once")
+    void given_whenDoFilterWithValidToken_thenLoadUserOnce() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/me");
+        Claims claims = Jwts.claims().setSubject(user.getId().toString());
+        when(jwtTokenProvider.extractJwtFromRequest(request)).thenReturn("token");
+        when(jwtTokenProvider.getVerifiedClaims("token", request)).thenReturn(claims);
+        when(userService.loadUserById(user.getId().toString())).thenReturn(JwtUserDetails.createWithUser(user));
+        // When
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(user, ((JwtUserDetails) authentication.getPrincipal()).getUser());
+        verify(userService, times(1)).loadUserById(user.getId().toString());
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Stateless token is authenticated without a user lookup")
+    void given_whenDoFilterWithStatelessToken_thenSkipUserLookup() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/me");
+        Claims claims = Jwts.claims().setSubject(user.getId().toString());
+        JwtUserDetails userDetails = JwtUserDetails.create(user);
+        when(jwtTokenProvider.extractJwtFromRequest(request)).thenReturn("token");
+        when(jwtTokenProvider.getVerifiedClaims("token", request)).thenReturn(claims);
+        when(jwtTokenProvider.getUserDetailsFromClaims(claims)).thenReturn(userDetails);
+        // When
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        // Then
+        assertEquals(userDetails, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userService, never()).loadUserById(anyString());
+    }
+
+    @Test
+    @DisplayName("Request without token does not touch the user store")
+    void given_whenDoFilterWithoutToken_thenSkipUserLookup() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/me");
+        // When
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtTokenProvider, never()).getVerifiedClaims(anyString(), any());
+        verify(userService, never()).loadUserById(anyString());
+    }
+
+    @Test
+    @DisplayName("Public route skips the token work")
+    void given_whenDoFilterOnPublicRoute_thenSkipTokenWork() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.addHeader("Authorization", "Bearer token");
+        // When
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtTokenProvider, userService);
+    }
+
+    @Test
+    @DisplayName("Logout resolves the token although the route is public")
+    void given_whenDoFilterOnLogout_thenResolveToken() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/logout");
+        Claims claims = Jwts.claims().setSubject(user.getId().toString());
+        JwtUserDetails userDetails = JwtUserDetails.create(user);
+        when(jwtTokenProvider.extractJwtFromRequest(request)).thenReturn("token");
+        when(jwtTokenProvider.getVerifiedClaims("token", request)).thenReturn(claims);
+        when(jwtTokenProvider.getUserDetailsFromClaims(claims)).thenReturn(userDetails);
+        // When
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        // Then
+        assertEquals(userDetails, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+}
@@ -0,0 +1,108 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@DisplayName("Unit tests for JwtSigningKeys")
+class JwtSigningKeysTest {
+    @Test
+    @DisplayName("Ephemeral key is published in the JWKS")
+    void given_whenNoKeyConfigured_thenPublishEphemeralKey() {
+        // When
+        JwtSigningKeys keys = new JwtSigningKeys("", "", "", "", 3600L, true);
+        // Then
+        List<?> jwks = (List<?>) keys.getJwks().get("keys");
+        assertEquals(1, jwks.size());
+        Map<?, ?> jwk = (Map<?, ?>) jwks.get(0);
+        assertEquals(keys.getActiveKeyId(), jwk.get("kid"));
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+        assertNotNull(keys.getActivePublicKey());
+    }
+
+    @Test
+    @DisplayName("Previous keys are kept for verification")
+    void given_whenPreviousKeysConfigured_thenKeepThemForVerification() {
+        // Given
+        JwtSigningKeys previous = new JwtSigningKeys("", "", "", "", 3600L, true);
+        String previousKey = Base64.getEncoder().encodeToString(previous.getActivePublicKey().getEncoded());
+        // When
+        JwtSigningKeys keys = new JwtSigningKeys("", "", "", "old:" + previousKey, 3600L, true);
+        // Then
+        assertEquals(previous.getActivePublicKey(), keys.getPublicKey("old"));
+        assertEquals(2, ((List<?>) keys.getJwks().get("keys")).size());
+        assertNull(keys.getPublicKey("unknown"));
+        assertNotEquals(previous.getJwksETag(), keys.getJwksETag());
+    }
+
+    @Test
+    @DisplayName("Configured key pair is used")
+    void given_whenKeyPairConfigured_thenUseIt() {
+        // Given
+        JwtSigningKeys generated = new JwtSigningKeys("", "", "", "", 3600L, true);
+        // When
+        JwtSigningKeys keys = new JwtSigningKeys("kid", encode(generated.getActivePrivateKey().getEncoded()),
+            encode(generated.getActivePublicKey().getEncoded()), "", 3600L, false);
+        // Then
+        assertEquals("kid", keys.getActiveKeyId());
+        assertEquals(generated.getActivePublicKey(), keys.getActivePublicKey());
+    }
+
+    @Test
+    @DisplayName("Missing key without the ephemeral key flag")
+    void given_whenNoKeyConfiguredAndEphemeralKeyNotAllowed_thenThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new JwtSigningKeys("", "", "", "", 3600L, false));
+    }
+
+    @Test
+    @DisplayName("Blank key id")
+    void given_whenBlankKeyId_thenThrowIllegalStateException() {
+        // Given
+        JwtSigningKeys generated = new JwtSigningKeys("", "", "", "", 3600L, true);
+        String privateKey = encode(generated.getActivePrivateKey().getEncoded());
+        String publicKey = encode(generated.getActivePublicKey().getEncoded());
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> new JwtSigningKeys(" ", privateKey, publicKey, "", 3600L, false));
+        // Then
+        assertEquals("JWT signing key id must not be blank!", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Public key of another key pair")
+    void given_whenPublicKeyDoesNotMatch_thenThrowIllegalStateException() {
+        // Given
+        JwtSigningKeys generated = new JwtSigningKeys("", "", "", "", 3600L, true);
+        JwtSigningKeys other = new JwtSigningKeys("", "", "", "", 3600L, true);
+        String privateKey = encode(generated.getActivePrivateKey().getEncoded());
+        String publicKey = encode(other.getActivePublicKey().getEncoded());
+        // When
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> new JwtSigningKeys("kid", privateKey, publicKey, "", 3600L, false));
+        // Then
+        assertEquals("JWT signing public key does not match the private key!", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid key")
+    void given_whenInvalidKey_thenThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new JwtSigningKeys("kid", "invalid", "invalid", "", 3600L, true));
+    }
+
+    private static String encode(final byte[] key) {
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
@@ -0,0 +1,252 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserDetailsCacheService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for JwtTokenProvider")
+class JwtTokenProviderTest {
+    private static final JwtSigningKeys SIGNING_KEYS = new JwtSigningKeys("", "", "", "", 3600L, true);
+
+    private static final String USER_AGENT = "JUnit";
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    @Mock
+    private UserDetailsCacheService userDetailsCacheService;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final String userId = UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SIGNING_KEYS, 60_000L, 120_000L, 240_000L, false, userService,
+            jwtTokenService, userDetailsCacheService, httpServletRequest);
+        lenient().when(httpServletRequest.getHeader("User-agent")).thenReturn(USER_AGENT);
+    }
+
+    @Nested
+    @DisplayName("Test class for getVerifiedClaims scenarios")
+    class GetVerifiedClaimsTest {
+        @Test
+        @DisplayName("Happy path")
+        void given_whenGetVerifiedClaims_thenAssertBody() {
+            // Given
+            String token = jwtTokenProvider.generateJwt(userId);
+            when(jwtTokenService.findByTokenOrRefreshToken(eq(token), any(Date.class)))
+                .thenReturn(JwtToken.builder().userAgent(USER_AGENT).build());
+            // When
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token);
+            // Then
+            assertNotNull(claims);
+            assertEquals(userId, claims.getSubject());
+            verify(jwtTokenService, times(1)).findByTokenOrRefreshToken(eq(token), any(Date.class));
+        }
+
+        @Test
+        @DisplayName("User agent is not matched")
+        void given_whenGetVerifiedClaimsWithAnotherUserAgent_thenReturnNull() {
+            // Given
+            String token = jwtTokenProvider.generateJwt(userId);
+            when(jwtTokenService.findByTokenOrRefreshToken(eq(token), any(Date.class)))
+                .thenReturn(JwtToken.builder().userAgent("Another").build());
+            // When
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token);
+            // Then
+            assertNull(claims);
+        }
+
+        @Test
+        @DisplayName("Token is not found in the token store")
+        void given_whenGetVerifiedClaimsNotFound_thenSetNotFoundAttribute() {
+            // Given
+            String token = jwtTokenProvider.generateJwt(userId);
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            when(jwtTokenService.findByTokenOrRefreshToken(anyString(), any(Date.class))).thenThrow(new NotFoundException());
+            // When
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token, request);
+            // Then
+            assertNull(claims);
+            verify(request, times(1)).setAttribute("notfound", "Token is not found in cache");
+        }
+
+        @Test
+        @DisplayName("Expired token")
+        void given_whenGetVerifiedClaimsExpired_thenSetExpiredAttribute() {
+            // Given
+            String token = jwtTokenProvider.generateTokenByUserId(userId, -1_000L);
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            // When
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token, request);
+            // Then
+            assertNull(claims);
+            verify(request, times(1)).setAttribute("expired", "Expired JWT token!");
+        }
+
+        @Test
+        @DisplayName("Malformed token")
+        void given_whenGetVerifiedClaimsMalformed_thenSetInvalidAttribute() {
+            // Given
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            // When
+            boolean valid = jwtTokenProvider.validateToken("not-a-jwt", request);
+            // Then
+            assertFalse(valid);
+            verify(request, times(1)).setAttribute("invalid", "Invalid JWT token!");
+        }
+
+        @Test
+        @DisplayName("Token signed with an unknown key")
+        void given_whenGetVerifiedClaimsWithUnknownKey_thenSetInvalidAttribute() {
+            // Given
+            String token = new JwtTokenProvider(new JwtSigningKeys("", "", "", "", 3600L, true), 60_000L, 120_000L,
+                240_000L, false, userService, jwtTokenService, userDetailsCacheService, httpServletRequest)
+                .generateJwt(userId);
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            // When
+            Claims claims = jwtTokenProvider.getVerifiedClaims(token, request);
+            // Then
+            assertNull(claims);
+            verify(request, times(1)).setAttribute("invalid", "Invalid JWT token!");
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for stateless authorities scenarios")
+    class StatelessAuthoritiesTest {
+        private final JwtUserDetails userDetails = JwtUserDetails.create(userId, "user@example.com",
+            List.of(new SimpleGrantedAuthority("ADMIN")), true);
+
+        @BeforeEach
+        void setUp() {
+            jwtTokenProvider = new JwtTokenProvider(SIGNING_KEYS, 60_000L, 120_000L, 240_000L, true, userService,
+                jwtTokenService, userDetailsCacheService, httpServletRequest);
+        }
+
+        @Test
+        @DisplayName("User details are built from the claims")
+        void given_whenGetUserDetailsFromClaims_thenAssertBody() {
+            // Given
+            when(userDetailsCacheService.getRevision(userId)).thenReturn(3L);
+            String token = jwtTokenProvider.generateJwt(userDetails);
+            Claims claims = Jwts.parserBuilder().setSigningKey(SIGNING_KEYS.getActivePublicKey()).build()
+                .parseClaimsJws(token).getBody();
+            // When
+            JwtUserDetails result = jwtTokenProvider.getUserDetailsFromClaims(claims);
+            // Then
+            assertNotNull(result);
+            assertEquals(userId, result.getId());
+            assertEquals("user@example.com", result.getEmail());
+            assertEquals(List.of(new SimpleGrantedAuthority("ADMIN")), List.copyOf(result.getAuthorities()));
+            assertTrue(result.isEmailVerified());
+        }
+
+        @Test
+        @DisplayName("Outdated revision falls back to a user lookup")
+        void given_whenGetUserDetailsFromClaimsWithOutdatedRevision_thenReturnNull() {
+            // Given
+            Claims claims = Jwts.claims().setSubject(userId);
+            claims.put("ver", 3L);
+            when(userDetailsCacheService.getRevision(userId)).thenReturn(4L);
+            // When
+            JwtUserDetails result = jwtTokenProvider.getUserDetailsFromClaims(claims);
+            // Then
+            assertNull(result);
+        }
+    }
+
+    @Test
+    @DisplayName("Test for validateToken with a known token")
+    void given_whenValidateToken_thenReturnTrue() {
+        // Given
+        String token = jwtTokenProvider.generateRefresh(userId);
+        when(jwtTokenService.findByTokenOrRefreshToken(eq(token), any(Date.class)))
+            .thenReturn(JwtToken.builder().userAgent(USER_AGENT).build());
+        // When
+        boolean valid = jwtTokenProvider.validateToken(token);
+        // Then
+        assertTrue(valid);
+        assertEquals(userId, jwtTokenProvider.getUserIdFromToken(token));
+    }
+
+    @Test
+    @DisplayName("Concurrent mixed logins keep the refresh lifetime of their own policy")
+    void given_whenGenerateRefreshConcurrently_thenEveryTokenHasItsOwnLifetime() throws Exception {
+        // Given
+        JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(SIGNING_KEYS.getPublicKey(SIGNING_KEYS.getActiveKeyId()))
+            .build();
+        List<Callable<Long>> tasks = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            TokenPolicy tokenPolicy = jwtTokenProvider.getTokenPolicy(i % 3 == 0);
+            expected.add(tokenPolicy.refreshTokenExpiresIn());
+            tasks.add(() -> {
+                Claims claims = parser.parseClaimsJws(jwtTokenProvider.generateRefresh(userId, tokenPolicy)).getBody();
+                return claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // When
+        List<Future<Long>> results;
+        try {
+            results = executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+        // Then
+        for (int i = 0; i < results.size(); i++) {
+            // Dates of the claims are stored in seconds
+            assertTrue(Math.abs(expected.get(i) - results.get(i).get()) <= 1000);
+        }
+        assertEquals(120_000L, jwtTokenProvider.getTokenPolicy(false).refreshTokenExpiresIn());
+    }
+}
@@ -0,0 +1,34 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unit")
+@DisplayName("Unit tests for PasswordCostCalibrator")
+class PasswordCostCalibratorTest {
+    private static final IntToLongFunction DOUBLING = strength -> Duration.ofMillis(1L << (strength - 4)).toNanos();
+
+    @Test
+    @DisplayName("The highest strength within the target is picked")
+    void given_whenCalibrate_thenPickHighestStrengthWithinTarget() {
+        // When
+        int strength = PasswordCostCalibrator.calibrate(Duration.ofMillis(300), DOUBLING);
+        // Then
+        assertEquals(12, strength);
+    }
+
+    @Test
+    @DisplayName("The strength does not go below the minimum on slow hardware")
+    void given_whenTargetIsTooLow_thenReturnMinimum() {
+        // When
+        int strength = PasswordCostCalibrator.calibrate(Duration.ofMillis(1), DOUBLING);
+        // Then
+        assertEquals(PasswordCostCalibrator.MIN_STRENGTH, strength);
+    }
+}
@@ -0,0 +1,40 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for RouteClassifier")
+class RouteClassifierTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"/", "/auth", "/auth/login", "/auth/refresh", "/public/ping", "/assets/app.css",
+        "/api-docs", "/swagger-ui/index.html", "/webjars/x.js"})
+    @DisplayName("Permit-all routes are public")
+    void given_whenPublicPath_thenReturnTrue(String path) {
+        assertTrue(RouteClassifier.isPublic(new MockHttpServletRequest("GET", path)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/auth/logout", "/account/me", "/admin/users", "/authx", "/publicity", ""})
+    @DisplayName("Guarded routes and logout are not public")
+    void given_whenGuardedPath_thenReturnFalse(String path) {
+        assertFalse(RouteClassifier.isPublic(new MockHttpServletRequest("GET", path)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/app/auth/login", "/app/"})
+    @DisplayName("Context path is skipped")
+    void given_whenContextPath_thenClassifyRemainder(String path) {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setContextPath("/app");
+        // Then
+        assertTrue(RouteClassifier.isPublic(request));
+    }
+}
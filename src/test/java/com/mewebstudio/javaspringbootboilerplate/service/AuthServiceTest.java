@@ -7,6 +7,9 @@ import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.exception.RefreshTokenExpiredException;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import com.mewebstudio.javaspringbootboilerplate.security.TokenPolicy;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,11 +75,20 @@ class AuthServiceTest {
 
     private final String token = "token";
 
+    private final Claims claims = Jwts.claims().setSubject(user.getId().toString());
+
+    private final TokenPolicy defaultTokenPolicy = new TokenPolicy(1L, 2L, false);
+
+    private final TokenPolicy rememberMeTokenPolicy = new TokenPolicy(1L, 7L, true);
+
     @BeforeEach
     void setUp() {
-        lenient().when(jwtTokenProvider.getTokenExpiresIn()).thenReturn(1L);
-        lenient().when(jwtTokenProvider.generateJwt(anyString())).thenReturn(tokenResponse.getToken());
-        lenient().when(jwtTokenProvider.generateRefresh(anyString())).thenReturn(tokenResponse.getRefreshToken());
+        lenient().when(jwtTokenProvider.getTokenPolicy(false)).thenReturn(defaultTokenPolicy);
+        lenient().when(jwtTokenProvider.getTokenPolicy(true)).thenReturn(rememberMeTokenPolicy);
+        lenient().when(jwtTokenProvider.generateJwt(any(JwtUserDetails.class), any(TokenPolicy.class)))
+            .thenReturn(tokenResponse.getToken());
+        lenient().when(jwtTokenProvider.generateRefresh(anyString(), any(TokenPolicy.class)))
+            .thenReturn(tokenResponse.getRefreshToken());
     }
 
     @Nested
@@ -121,6 +133,18 @@ class AuthServiceTest {
             assertEquals(tokenResponse.getRefreshToken(), response.getRefreshToken());
         }
 
+        @Test
+        @DisplayName("Test for login without remember me")
+        void given_whenLoginWithoutRememberMe_thenUseDefaultTokenPolicy() {
+            // Given
+            when(userService.findByEmail(anyString())).thenReturn(user);
+            // When
+            TokenResponse response = authService.login(user.getEmail(), password, null);
+            // Then
+            assertEquals(defaultTokenPolicy.refreshTokenExpiresIn(), response.getExpiresIn().getRefreshToken());
+            verify(jwtTokenProvider).generateRefresh(user.getId().toString(), defaultTokenPolicy);
+        }
+
         @Test
         @DisplayName("Test for not found error login with username")
         void given_whenLoginWithEmail_thenShouldThrowAuthenticationCredentialsNotFoundException_fromNotFound() {
@@ -158,10 +182,10 @@ class AuthServiceTest {
         void given_whenRefresh_thenAssertBody() {
             // Given
             when(jwtTokenProvider.extractJwtFromBearerString(any(String.class))).thenReturn(token);
-            when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-            when(jwtTokenProvider.getUserFromToken(token)).thenReturn(user);
-            when(jwtTokenProvider.generateJwt(user.getId().toString())).thenReturn("newToken");
-            when(jwtTokenProvider.generateRefresh(user.getId().toString())).thenReturn("newRefresh");
+            when(jwtTokenProvider.getVerifiedClaims(token)).thenReturn(claims);
+            when(jwtTokenProvider.getUserFromClaims(claims)).thenReturn(user);
+            when(jwtTokenProvider.generateJwt(any(JwtUserDetails.class), any(TokenPolicy.class))).thenReturn("newToken");
+            when(jwtTokenProvider.generateRefresh(user.getId().toString(), defaultTokenPolicy)).thenReturn("newRefresh");
             // When
             TokenResponse response = authService.refreshFromBearerString(token);
             // Then
@@ -175,7 +199,7 @@ class AuthServiceTest {
         void given_whenRefresh_thenAssertBody_FromRefreshTokenExpiredException() {
             // Given
             when(jwtTokenProvider.extractJwtFromBearerString(any(String.class))).thenReturn(token);
-            when(jwtTokenProvider.validateToken(token)).thenReturn(false);
+            when(jwtTokenProvider.getVerifiedClaims(token)).thenReturn(null);
             // When
             Executable executable = () -> authService.refreshFromBearerString(token);
             // Then
@@ -193,18 +217,19 @@ class AuthServiceTest {
             JwtToken oldToken = Instancio.create(JwtToken.class);
             oldToken.setRememberMe(true);
             when(jwtTokenProvider.extractJwtFromBearerString(bearerToken)).thenReturn(token);
-            when(jwtTokenProvider.validateToken("token")).thenReturn(true);
+            when(jwtTokenProvider.getVerifiedClaims("token")).thenReturn(claims);
             when(jwtTokenService.findByUserIdAndRefreshToken(user.getId(), token)).thenReturn(oldToken);
-            when(jwtTokenProvider.getUserFromToken("token")).thenReturn(user);
-            when(jwtTokenProvider.generateJwt(user.getId().toString())).thenReturn("newToken");
-            when(jwtTokenProvider.generateRefresh(user.getId().toString())).thenReturn("newRefresh");
-            when(jwtTokenProvider.getTokenExpiresIn()).thenReturn(1L);
+            when(jwtTokenProvider.getUserFromClaims(claims)).thenReturn(user);
+            when(jwtTokenProvider.generateJwt(any(JwtUserDetails.class), any(TokenPolicy.class))).thenReturn("newToken");
+            when(jwtTokenProvider.generateRefresh(user.getId().toString(), rememberMeTokenPolicy))
+                .thenReturn("newRefresh");
             // When
             TokenResponse response = authService.refreshFromBearerString(bearerToken);
             // Then
             assertNotNull(response);
             assertEquals("newToken", response.getToken());
             assertEquals("newRefresh", response.getRefreshToken());
+            assertEquals(rememberMeTokenPolicy.refreshTokenExpiresIn(), response.getExpiresIn().getRefreshToken());
         }
     }
 
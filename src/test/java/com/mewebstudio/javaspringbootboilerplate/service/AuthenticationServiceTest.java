@@ -1,6 +1,7 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.security.AuthorityMask;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -75,6 +76,20 @@ class AuthenticationServiceTest {
             assertFalse(result);
         }
 
+        @Test
+        @DisplayName("Should match a compiled role mask")
+        void given_whenIsAuthorizedWithMask_thenCompareBits() {
+            // Given
+            long granted = AuthorityMask.of(jwtUserDetails.getAuthorities());
+            // When
+            boolean authorized = authenticationService.isAuthorized(granted);
+            boolean denied = authenticationService.isAuthorized(~granted);
+            // Then
+            assertEquals(granted, jwtUserDetails.getAuthorityMask());
+            assertTrue(authorized);
+            assertFalse(denied);
+        }
+
         @Test
         @DisplayName("Should return access denied when user is null")
         void given_whenIsAuthorized_thenShouldReturnAccessDeniedExceptionWhenUserIdNull() {
@@ -2,7 +2,10 @@ package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.TestController;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.security.AuthorityMask;
+import com.mewebstudio.javaspringbootboilerplate.security.Authorize;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.instancio.Instancio;
@@ -13,13 +16,26 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import java.security.InvalidParameterException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -64,6 +80,49 @@ class InterceptorServiceTest {
         assertTrue(result);
     }
 
+    @Test
+    @DisplayName("Test preHandle method with a compiled Authorize requirement")
+    void given_whenPreHandleGuardedMethod_thenCheckMask() throws NoSuchMethodException {
+        // Given
+        HandlerMethod guarded = new HandlerMethod(new GuardedController(), "guardedMethod");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long mask = AuthorityMask.of(Constants.RoleEnum.ADMIN);
+        when(authenticationService.getPrincipal()).thenReturn(jwtUserDetails);
+        when(authenticationService.isAuthorized(mask)).thenReturn(true, false);
+        // When
+        boolean result = interceptorService.preHandle(request, response, guarded);
+        // Then
+        assertTrue(result);
+        assertThrows(AccessDeniedException.class, () -> interceptorService.preHandle(request, response, guarded));
+        verify(authenticationService, times(2)).isAuthorized(mask);
+    }
+
+    @Test
+    @DisplayName("Test preHandle method with request params of a described handler")
+    void given_whenPreHandleAfterWarmUp_thenCheckAllowedParams() throws NoSuchMethodException {
+        // Given
+        HandlerMethod search = new HandlerMethod(new GuardedController(), "searchMethod", String.class);
+        RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(mapping.getHandlerMethods()).thenReturn(Map.of(RequestMappingInfo.paths("/search").build(), search));
+        when(applicationContext.getBeansOfType(RequestMappingHandlerMapping.class))
+            .thenReturn(Map.of("requestMappingHandlerMapping", mapping));
+        interceptorService.warmUp(new ContextRefreshedEvent(applicationContext));
+        MockHttpServletRequest valid = new MockHttpServletRequest();
+        valid.setParameter("q", "lorem");
+        MockHttpServletRequest invalid = new MockHttpServletRequest();
+        invalid.setParameter("q", "lorem");
+        invalid.setParameter("page", "1");
+        // When
+        boolean result = interceptorService.preHandle(valid, new MockHttpServletResponse(), search);
+        // Then
+        assertTrue(result);
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class,
+            () -> interceptorService.preHandle(invalid, new MockHttpServletResponse(), search));
+        assertEquals("unexpected parameter: [page]", exception.getMessage());
+    }
+
     @Test
     @DisplayName("Test preHandle method with invalid handler")
     void given_whenPreHandleInvalidHandler_thenAssertBody() {
@@ -76,4 +135,13 @@ class InterceptorServiceTest {
         verify(authenticationService, never()).getPrincipal();
         verify(authenticationService, never()).isAuthorized(anyString());
     }
+
+    static class GuardedController {
+        @Authorize(roles = "ADMIN")
+        public void guardedMethod() {
+        }
+
+        public void searchMethod(@RequestParam("q") final String q) {
+        }
+    }
 }
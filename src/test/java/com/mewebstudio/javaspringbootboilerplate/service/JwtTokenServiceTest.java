@@ -2,7 +2,8 @@ package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
-import com.mewebstudio.javaspringbootboilerplate.repository.JwtTokenRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.TokenStore;
+import com.mewebstudio.javaspringbootboilerplate.util.TokenDigest;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +15,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,11 +28,14 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit tests for JwtTokenService")
 class JwtTokenServiceTest {
     @Mock
-    private JwtTokenRepository jwtTokenRepository;
+    private TokenStore tokenStore;
 
     @Mock
     private MessageSourceService messageSourceService;
 
+    @Mock
+    private TokenValidationCacheService tokenValidationCacheService;
+
     @InjectMocks
     private JwtTokenService jwtTokenService;
 
@@ -49,13 +55,13 @@ class JwtTokenServiceTest {
             // Given
             UUID userId = UUID.randomUUID();
             String refreshToken = "testRefreshToken";
-            when(jwtTokenRepository.findByUserIdAndRefreshToken(userId, refreshToken))
+            when(tokenStore.findByUserIdAndRefreshToken(userId, refreshToken))
                 .thenReturn(Optional.of(jwtToken));
             // When
             JwtToken result = jwtTokenService.findByUserIdAndRefreshToken(userId, refreshToken);
             // Then
             assertEquals(jwtToken, result);
-            verify(jwtTokenRepository, times(1))
+            verify(tokenStore, times(1))
                 .findByUserIdAndRefreshToken(userId, refreshToken);
         }
 
@@ -65,14 +71,14 @@ class JwtTokenServiceTest {
             // Given
             UUID userId = UUID.randomUUID();
             String refreshToken = "testRefreshToken";
-            when(jwtTokenRepository.findByUserIdAndRefreshToken(userId, refreshToken)).thenReturn(Optional.empty());
+            when(tokenStore.findByUserIdAndRefreshToken(userId, refreshToken)).thenReturn(Optional.empty());
             when(messageSourceService.get("not_found_with_param",
                 new String[]{messageSourceService.get("token")})).thenReturn("Token not found");
             // When
             Executable executable = () -> jwtTokenService.findByUserIdAndRefreshToken(userId, refreshToken);
             // Then
             assertThrows(NotFoundException.class, executable);
-            verify(jwtTokenRepository, times(1)).findByUserIdAndRefreshToken(userId, refreshToken);
+            verify(tokenStore, times(1)).findByUserIdAndRefreshToken(userId, refreshToken);
         }
     }
 
@@ -85,25 +91,50 @@ class JwtTokenServiceTest {
         @DisplayName("Happy path")
         void given_whenFindByTokenOrRefreshToken_thenAssertBody() {
             // Given
-            when(jwtTokenRepository.findByTokenOrRefreshToken(token, token)).thenReturn(Optional.of(jwtToken));
+            when(tokenStore.findByTokenOrRefreshToken(token)).thenReturn(Optional.of(jwtToken));
             // When
             JwtToken result = jwtTokenService.findByTokenOrRefreshToken(token);
             // Then
             assertEquals(jwtToken, result);
-            verify(jwtTokenRepository, times(1)).findByTokenOrRefreshToken(token, token);
+            verify(tokenStore, times(1)).findByTokenOrRefreshToken(token);
         }
 
         @Test
         @DisplayName("Not found exception")
         void given_whenFindByTokenOrRefreshToken_thenThrowNotFoundException() {
             // Given
-            when(jwtTokenRepository.findByTokenOrRefreshToken(token, token)).thenReturn(Optional.empty());
+            when(tokenStore.findByTokenOrRefreshToken(token)).thenReturn(Optional.empty());
             when(messageSourceService.get("not_found_with_param", new String[]{messageSourceService.get("token")})).thenReturn("Token not found");
             // When
             Executable executable = () -> jwtTokenService.findByTokenOrRefreshToken(token);
             // Then
             assertThrows(NotFoundException.class, executable);
-            verify(jwtTokenRepository, times(1)).findByTokenOrRefreshToken(token, token);
+            verify(tokenStore, times(1)).findByTokenOrRefreshToken(token);
+        }
+
+        @Test
+        @DisplayName("Served from the validation cache")
+        void given_whenFindByTokenOrRefreshTokenCached_thenSkipTokenStore() {
+            // Given
+            when(tokenValidationCacheService.get(TokenDigest.sha256(token))).thenReturn(jwtToken);
+            // When
+            JwtToken result = jwtTokenService.findByTokenOrRefreshToken(token, new Date());
+            // Then
+            assertEquals(jwtToken, result);
+            verify(tokenStore, never()).findByTokenOrRefreshToken(token);
+        }
+
+        @Test
+        @DisplayName("Cached until the token expires")
+        void given_whenFindByTokenOrRefreshTokenNotCached_thenCacheUntilExpiration() {
+            // Given
+            Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+            when(tokenStore.findByTokenOrRefreshToken(token)).thenReturn(Optional.of(jwtToken));
+            // When
+            jwtTokenService.findByTokenOrRefreshToken(token, expiresAt);
+            // Then
+            verify(tokenValidationCacheService, times(1))
+                .put(TokenDigest.sha256(token), jwtToken, expiresAt.getTime());
         }
     }
 
@@ -113,7 +144,7 @@ class JwtTokenServiceTest {
         // When
         jwtTokenService.save(jwtToken);
         // Then
-        verify(jwtTokenRepository, times(1)).save(jwtToken);
+        verify(tokenStore, times(1)).save(jwtToken);
     }
 
     @Test
@@ -122,6 +153,25 @@ class JwtTokenServiceTest {
         // When
         jwtTokenService.delete(jwtToken);
         // Then
-        verify(jwtTokenRepository, times(1)).delete(jwtToken);
+        verify(tokenStore, times(1)).delete(jwtToken);
+        verify(tokenValidationCacheService, times(1)).revoke(List.of(jwtToken.getTokenDigest(),
+            jwtToken.getRefreshTokenDigest()));
+    }
+
+    @Test
+    @DisplayName("Test class for delete scenarios of a loaded token that only carries the digests")
+    void given_whenDeleteLoadedToken_thenRevokeStoredDigests() {
+        // Given
+        JwtToken loaded = JwtToken.builder()
+            .id(jwtToken.getId())
+            .userId(jwtToken.getUserId())
+            .tokenDigest("token-digest")
+            .refreshTokenDigest("refresh-digest")
+            .build();
+        // When
+        jwtTokenService.delete(loaded);
+        // Then
+        verify(tokenStore, times(1)).delete(loaded);
+        verify(tokenValidationCacheService, times(1)).revoke(List.of("token-digest", "refresh-digest"));
     }
 }
@@ -0,0 +1,127 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailTypeEnum;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for MailOutboxDispatcher")
+class MailOutboxDispatcherTest {
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Mock
+    private MailOutboxService mailOutboxService;
+
+    @Mock
+    private MailSenderService mailSenderService;
+
+    private final MailOutbox first = createMail("first@example.com");
+
+    private final MailOutbox second = createMail("second@example.com");
+
+    private final MimeMessage firstMessage = new MimeMessage((Session) null);
+
+    private final MimeMessage secondMessage = new MimeMessage((Session) null);
+
+    @BeforeEach
+    void setUp() throws MessagingException, UnsupportedEncodingException {
+        MockitoAnnotations.openMocks(this);
+        mailOutboxDispatcher = new MailOutboxDispatcher(mailOutboxService, mailSenderService, 2);
+        when(mailOutboxService.claim(2)).thenReturn(List.of(first, second), List.of());
+        when(mailSenderService.createMessage(any(MailTypeEnum.class), eq(first.getRecipientEmail()), any(), any(Locale.class),
+            anyMap())).thenReturn(firstMessage);
+        when(mailSenderService.createMessage(any(MailTypeEnum.class), eq(second.getRecipientEmail()), any(), any(Locale.class),
+            anyMap())).thenReturn(secondMessage);
+    }
+
+    @Test
+    @DisplayName("Full batches are sent at once until the outbox is drained")
+    void given_whenDispatch_thenSendBatchAndComplete() {
+        // When
+        mailOutboxDispatcher.dispatch();
+        // Then
+        verify(mailOutboxService, times(2)).claim(2);
+        verify(mailSenderService, times(1)).sendBatch(any(MimeMessage[].class));
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(mailOutboxService).complete(eq(first.getNextAttemptAt()), captor.capture(), eq(Map.of()));
+        assertEquals(Set.of(first.getId(), second.getId()), Set.copyOf(captor.getValue()));
+    }
+
+    @Test
+    @DisplayName("Only the rejected messages of a batch are failed")
+    void given_whenSendBatchPartiallyFails_thenCompleteWithFailures() {
+        // Given
+        doThrow(new MailSendException(Map.of(secondMessage, new MessagingException("Mailbox unavailable"))))
+            .when(mailSenderService).sendBatch(any(MimeMessage[].class));
+        // When
+        mailOutboxDispatcher.send(List.of(first, second));
+        // Then
+        verify(mailOutboxService).complete(first.getNextAttemptAt(), List.of(first.getId()),
+            Map.of(second.getId(), "Mailbox unavailable"));
+    }
+
+    @Test
+    @DisplayName("Render failures do not block the batch")
+    void given_whenCreateMessageFails_thenSendTheRest() throws MessagingException, UnsupportedEncodingException {
+        // Given
+        when(mailSenderService.createMessage(any(MailTypeEnum.class), eq(first.getRecipientEmail()), any(), any(Locale.class),
+            anyMap())).thenThrow(new MessagingException("Invalid address"));
+        // When
+        mailOutboxDispatcher.send(List.of(first, second));
+        // Then
+        verify(mailSenderService).sendBatch(secondMessage);
+        verify(mailOutboxService).complete(first.getNextAttemptAt(), List.of(second.getId()),
+            Map.of(first.getId(), "Invalid address"));
+    }
+
+    @Test
+    @DisplayName("Purge deletes the sent mails past the retention")
+    void given_whenPurge_thenPurgeSent() {
+        // When
+        mailOutboxDispatcher.purge();
+        // Then
+        verify(mailOutboxService).purgeSent();
+    }
+
+    private static MailOutbox createMail(String email) {
+        MailOutbox mail = MailOutbox.builder()
+            .type(MailTypeEnum.EMAIL_VERIFICATION)
+            .recipientEmail(email)
+            .recipientName("Name")
+            .locale("en")
+            .variables(Map.of("name", "Name"))
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+        mail.setId(UUID.randomUUID());
+
+        return mail;
+    }
+}
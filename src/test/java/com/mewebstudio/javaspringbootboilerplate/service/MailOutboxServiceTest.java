@@ -0,0 +1,180 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.MailOutboxRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailOutboxStatusEnum;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailTypeEnum;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for MailOutboxService")
+class MailOutboxServiceTest {
+    private MailOutboxService mailOutboxService;
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private MailSenderService mailSenderService;
+
+    private final User user = Instancio.create(User.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mailOutboxService = new MailOutboxService(mailOutboxRepository, mailSenderService, 3, 1000L, 3000L, 60000L,
+            Duration.ofDays(7).toMillis());
+        when(mailOutboxRepository.save(any(MailOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mailOutboxRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Enqueue email verification mail")
+    void given_whenEnqueueUserEmailVerification_thenSavePendingMail() {
+        // Given
+        Map<String, String> variables = Map.of("name", user.getName());
+        when(mailSenderService.getUserEmailVerificationVariables(user)).thenReturn(variables);
+        // When
+        MailOutbox mail = mailOutboxService.enqueueUserEmailVerification(user);
+        // Then
+        assertEquals(MailTypeEnum.EMAIL_VERIFICATION, mail.getType());
+        assertEquals(MailOutboxStatusEnum.PENDING, mail.getStatus());
+        assertEquals(user.getEmail(), mail.getRecipientEmail());
+        assertEquals(variables, mail.getVariables());
+        verify(mailOutboxRepository).save(mail);
+    }
+
+    @Test
+    @DisplayName("Claimed mails are leased")
+    void given_whenClaim_thenMarkProcessing() {
+        // Given
+        MailOutbox mail = MailOutbox.builder().nextAttemptAt(LocalDateTime.now()).build();
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(List.of(mail));
+        // When
+        List<MailOutbox> claimed = mailOutboxService.claim(10);
+        // Then
+        assertEquals(1, claimed.size());
+        assertEquals(MailOutboxStatusEnum.PROCESSING, mail.getStatus());
+        assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+        assertEquals(0, mail.getNextAttemptAt().getNano() % 1000, "Lease is kept at the column precision");
+        verify(mailOutboxRepository).findDueForUpdate(any(LocalDateTime.class), eq(10));
+    }
+
+    @Nested
+    @DisplayName("Test class for complete scenarios")
+    class CompleteTest {
+        private final UUID id = UUID.randomUUID();
+
+        private final LocalDateTime leaseUntil = LocalDateTime.now().plusMinutes(1);
+
+        private MailOutbox mail;
+
+        @BeforeEach
+        void setUp() {
+            mail = MailOutbox.builder().status(MailOutboxStatusEnum.PROCESSING).nextAttemptAt(leaseUntil).build();
+            mail.setId(id);
+            when(mailOutboxRepository.findLeasedForUpdate(any(), eq(MailOutboxStatusEnum.PROCESSING), eq(leaseUntil)))
+                .thenReturn(List.of(mail));
+        }
+
+        @Test
+        @DisplayName("Sent mails still leased to the batch are marked in one statement")
+        void given_whenComplete_thenMarkSent() {
+            // When
+            mailOutboxService.complete(leaseUntil, List.of(id), Map.of());
+            // Then
+            verify(mailOutboxRepository).markSent(eq(List.of(id)), eq(MailOutboxStatusEnum.PROCESSING), eq(leaseUntil),
+                eq(MailOutboxStatusEnum.SENT), any(LocalDateTime.class));
+            verify(mailOutboxRepository, never()).findLeasedForUpdate(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Failed mail whose lease ran out is left to the dispatcher that claimed it again")
+        void given_whenCompleteWithLostLease_thenSkipMail() {
+            // Given
+            when(mailOutboxRepository.findLeasedForUpdate(any(), eq(MailOutboxStatusEnum.PROCESSING), eq(leaseUntil)))
+                .thenReturn(List.of());
+            // When
+            mailOutboxService.complete(leaseUntil, List.of(), Map.of(id, "Connection refused"));
+            // Then
+            assertEquals(MailOutboxStatusEnum.PROCESSING, mail.getStatus());
+            assertEquals(0, mail.getAttempts());
+            verify(mailOutboxRepository).saveAll(List.of());
+        }
+
+        @Test
+        @DisplayName("Failed mail is rescheduled")
+        void given_whenCompleteWithFailure_thenReschedule() {
+            // When
+            mailOutboxService.complete(leaseUntil, List.of(), Map.of(id, "Connection refused"));
+            // Then
+            ArgumentCaptor<List<MailOutbox>> captor = ArgumentCaptor.forClass(List.class);
+            verify(mailOutboxRepository).saveAll(captor.capture());
+            assertEquals(List.of(mail), captor.getValue());
+            assertEquals(MailOutboxStatusEnum.PENDING, mail.getStatus());
+            assertEquals(1, mail.getAttempts());
+            assertEquals("Connection refused", mail.getLastError());
+            verify(mailOutboxRepository, never()).markSent(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Mail is dead after max attempts")
+        void given_whenCompleteWithLastFailure_thenMarkDead() {
+            // Given
+            mail.setAttempts(2);
+            // When
+            mailOutboxService.complete(leaseUntil, List.of(), Map.of(id, "Mailbox unavailable"));
+            // Then
+            assertEquals(MailOutboxStatusEnum.DEAD, mail.getStatus());
+            assertEquals(3, mail.getAttempts());
+        }
+    }
+
+    @Test
+    @DisplayName("Sent mails past the retention are purged")
+    void given_whenPurgeSent_thenDeleteSentBeforeRetention() {
+        // Given
+        when(mailOutboxRepository.deleteSentBefore(eq(MailOutboxStatusEnum.SENT), any(LocalDateTime.class))).thenReturn(2);
+        // When
+        int purged = mailOutboxService.purgeSent();
+        // Then
+        assertEquals(2, purged);
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mailOutboxRepository).deleteSentBefore(eq(MailOutboxStatusEnum.SENT), captor.capture());
+        assertTrue(captor.getValue().isBefore(LocalDateTime.now().minusDays(6)));
+        assertTrue(captor.getValue().isAfter(LocalDateTime.now().minusDays(8)));
+    }
+
+    @Test
+    @DisplayName("Backoff doubles until the maximum")
+    void given_whenGetBackoff_thenDoubleUntilMax() {
+        assertEquals(Duration.ofSeconds(1), mailOutboxService.getBackoff(1));
+        assertEquals(Duration.ofSeconds(2), mailOutboxService.getBackoff(2));
+        assertEquals(Duration.ofSeconds(3), mailOutboxService.getBackoff(3));
+        assertEquals(Duration.ofSeconds(3), mailOutboxService.getBackoff(40));
+    }
+}
@@ -1,11 +1,9 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
-import com.mewebstudio.javaspringbootboilerplate.entity.EmailVerificationToken;
-import com.mewebstudio.javaspringbootboilerplate.entity.User;
-import jakarta.mail.MessagingException;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.MailTypeEnum;
 import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,19 +12,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,101 +41,80 @@ class MailSenderServiceTest {
     @Mock
     private MessageSourceService messageSourceService;
 
-    private final JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
-
-    private final MimeMessage mimeMessage = new MimeMessage((Session) null);
-
-    private final User user = Instancio.create(User.class);
-
-    private final EmailVerificationToken emailVerificationToken = Instancio.create(EmailVerificationToken.class);
-
     @BeforeEach
-    void setUp() throws MessagingException {
+    void setUp() {
         MockitoAnnotations.openMocks(this);
-        user.setEmailVerificationToken(emailVerificationToken);
-
-        javaMailSender.setHost("localhost");
-        javaMailSender.setPort(25);
-
-        mimeMessage.setSubject("Email Verification");
-        mimeMessage.setText("Email content");
-        mimeMessage.setRecipients(MimeMessage.RecipientType.TO, user.getEmail());
-
-        lenient().when(templateEngine.process(anyString(), any(Context.class))).thenReturn("Email content");
-        lenient().when(messageSourceService.get("email_verification")).thenReturn("Email Verification");
     }
 
     @Nested
-    @DisplayName("Test class for sendUserEmailVerification scenarios")
-    class SendUserEmailVerificationTest {
-        private final String subject = "Email Verification";
-
-        @BeforeEach
-        void setUp() {
-            lenient().when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        }
-
+    @DisplayName("Test class for createMessage scenarios")
+    class CreateMessageTest {
         @Test
-        @DisplayName("Test sendUserEmailVerification scenario")
-        void given_whenSendUserEmailVerification_thenAssertBody() {
+        @DisplayName("Message is addressed to the recipient with the localized subject")
+        void given_whenCreateMessage_thenReturnMessage() throws Exception {
             // Given
-            when(messageSourceService.get("email_verification")).thenReturn(subject);
-            doNothing().when(mailSender).send(any(MimeMessage.class));
+            when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+            when(messageSourceService.get(MailTypeEnum.EMAIL_VERIFICATION.getSubject(), Locale.ENGLISH))
+                .thenReturn("Email Verification");
+            when(templateEngine.process(eq(MailTypeEnum.EMAIL_VERIFICATION.getTemplate()), any(Context.class)))
+                .thenReturn("<p>{{mail:name}}</p>");
             // When
-            mailSenderService.sendUserEmailVerification(user);
+            MimeMessage message = mailSenderService.createMessage(MailTypeEnum.EMAIL_VERIFICATION, "john@example.com",
+                "John", Locale.ENGLISH, Map.of("name", "John"));
             // Then
-            verify(templateEngine, times(1)).process(eq("mail/user-email-verification"),
-                any(Context.class));
-            verify(mailSender, times(1)).send(any(MimeMessage.class));
+            assertEquals("Email Verification", message.getSubject());
+            assertEquals("john@example.com", ((InternetAddress) message.getAllRecipients()[0]).getAddress());
         }
+    }
 
+    @Nested
+    @DisplayName("Test class for sendBatch scenarios")
+    class SendBatchTest {
         @Test
-        @DisplayName("Test sendUserEmailVerification throw exception scenario")
-        void given_whenSendUserEmailVerification_thenVerifyErrorHandling() {
+        @DisplayName("All messages are handed to the mail sender at once")
+        void given_whenSendBatch_thenSendAllMessages() {
             // Given
-            when(messageSourceService.get("email_verification")).thenReturn(subject);
-            doThrow(new MailSendException("Mail send failed")).when(mailSender).send(mimeMessage);
+            MimeMessage first = new MimeMessage((Session) null);
+            MimeMessage second = new MimeMessage((Session) null);
             // When
-            assertDoesNotThrow(() -> mailSenderService.sendUserEmailVerification(user));
+            mailSenderService.sendBatch(first, second);
             // Then
-            // Verify that the error is handled gracefully in sendUserEmailVerification
+            verify(mailSender, times(1)).send(first, second);
         }
     }
 
     @Nested
-    @DisplayName("Test class for sendUserPasswordReset scenarios")
-    class SendUserPasswordResetTest {
-        private final String subject = "Reset Password";
-
+    @DisplayName("Test class for render scenarios")
+    class RenderTest {
         @BeforeEach
         void setUp() {
-            lenient().when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+            when(templateEngine.process(eq("mail/test"), any(Context.class)))
+                .thenReturn("<p>{{mail:name}}</p><a href=\"{{mail:url}}\">{{mail:url}}</a>");
         }
 
         @Test
-        @DisplayName("Test sendUserPasswordReset scenario")
-        void given_whenSendUserPasswordReset_thenAssertBody() {
+        @DisplayName("Variables are escaped into the cached skeleton")
+        void given_whenRenderTwice_thenProcessTemplateOnce() {
             // Given
-            when(messageSourceService.get("password_reset")).thenReturn(subject);
-            doNothing().when(mailSender).send(any(MimeMessage.class));
+            Map<String, String> variables = Map.of("name", "<b>John</b>", "url", "https://example.com/?a=1&b=2");
             // When
-            mailSenderService.sendUserPasswordReset(user);
+            String first = mailSenderService.render("mail/test", Locale.ENGLISH, variables);
+            String second = mailSenderService.render("mail/test", Locale.ENGLISH, Map.of("name", "Jane", "url", ""));
             // Then
-            verify(templateEngine, times(1)).process(eq("mail/user-reset-password"),
-                any(Context.class));
-            verify(mailSender, times(1)).send(any(MimeMessage.class));
+            assertEquals("<p>&lt;b&gt;John&lt;/b&gt;</p><a href=\"https://example.com/?a=1&amp;b=2\">"
+                + "https://example.com/?a=1&amp;b=2</a>", first);
+            assertEquals("<p>Jane</p><a href=\"\"></a>", second);
+            verify(templateEngine, times(1)).process(eq("mail/test"), any(Context.class));
         }
 
         @Test
-        @DisplayName("Test sendUserPasswordReset throw exception scenario")
-        void given_whenSendUserPasswordReset_thenVerifyErrorHandling() {
-            // Given
-            when(messageSourceService.get("password_reset")).thenReturn(subject);
-            doThrow(new MailSendException("Mail send failed")).when(mailSender).send(mimeMessage);
+        @DisplayName("Every locale has its own skeleton")
+        void given_whenRenderForAnotherLocale_thenProcessTemplateAgain() {
             // When
-            assertDoesNotThrow(() -> mailSenderService.sendUserPasswordReset(user));
+            mailSenderService.render("mail/test", Locale.ENGLISH, Map.of("name", "John", "url", ""));
+            mailSenderService.render("mail/test", Locale.forLanguageTag("tr"), Map.of("name", "John", "url", ""));
             // Then
-            // Verify that the error is handled gracefully in sendUserEmailVerification
+            verify(templateEngine, times(2)).process(eq("mail/test"), any(Context.class));
         }
     }
 }
@@ -19,7 +19,12 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Tag("unit")
@@ -68,6 +73,34 @@ class RoleServiceTest {
             assertEquals(role.getName(), result.getName());
         }
 
+        @Test
+        @DisplayName("Registered roles are resolved without a query")
+        void given_whenFindByNameAfterRefresh_thenUseRegistry() {
+            // Given
+            when(roleRepository.findAll()).thenReturn(List.of(role));
+            roleService.refresh();
+            // When
+            Role first = roleService.findByName(role.getName());
+            Role second = roleService.findByName(role.getName());
+            // Then
+            assertEquals(role.getId(), first.getId());
+            assertEquals(role.getName(), first.getName());
+            assertNotSame(first, second);
+            verify(roleRepository, never()).findByName(any());
+        }
+
+        @Test
+        @DisplayName("Unknown role is queried once")
+        void given_whenFindByNameTwice_thenQueryOnce() {
+            // Given
+            when(roleRepository.findByName(role.getName())).thenReturn(Optional.of(role));
+            // When
+            roleService.findByName(role.getName());
+            roleService.findByName(role.getName());
+            // Then
+            verify(roleRepository, times(1)).findByName(role.getName());
+        }
+
         @Test
         @DisplayName("Not found role path")
         void given_whenFindByName_thenThrowNotFoundException() {
@@ -95,6 +128,8 @@ class RoleServiceTest {
             assertNotNull(result);
             assertEquals(role.getId(), result.getId());
             assertEquals(role.getName(), result.getName());
+            assertEquals(role.getId(), roleService.findByName(role.getName()).getId());
+            verify(roleRepository, never()).findByName(any());
         }
     }
 
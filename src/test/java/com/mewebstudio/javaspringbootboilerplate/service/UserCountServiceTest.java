@@ -0,0 +1,113 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.CountModeEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserCountService")
+class UserCountServiceTest {
+    private UserCountService userCountService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userCountService = new UserCountService(userRepository, jdbcTemplate, 10, 60000L, 1, 1,
+            new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userCountService.destroy();
+    }
+
+    @Test
+    @DisplayName("Exact count is cached per filter set")
+    void given_whenCountExactTwice_thenQueryOnce() {
+        // Given
+        when(userRepository.count(any(UserFilterSpecification.class))).thenReturn(5L);
+        UserCriteria criteria = UserCriteria.builder().q("lorem").build();
+        // When
+        Long first = userCountService.count(criteria, CountModeEnum.EXACT).join();
+        Long second = userCountService.count(UserCriteria.builder().q("lorem").build(), CountModeEnum.EXACT).join();
+        // Then
+        assertEquals(5L, first);
+        assertEquals(5L, second);
+        verify(userRepository, times(1)).count(any(UserFilterSpecification.class));
+    }
+
+    @Test
+    @DisplayName("Estimated count of the unfiltered list is read from the statistics")
+    void given_whenCountEstimatedWithoutFilter_thenReadStatistics() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1000L);
+        // When
+        Long count = userCountService.count(UserCriteria.builder().build(), CountModeEnum.ESTIMATED).join();
+        // Then
+        assertEquals(1000L, count);
+        verify(userRepository, never()).count(any(UserFilterSpecification.class));
+    }
+
+    @Test
+    @DisplayName("No count is run in none mode")
+    void given_whenCountNone_thenReturnNull() {
+        assertNull(userCountService.count(UserCriteria.builder().build(), CountModeEnum.NONE).join());
+        verify(userRepository, never()).count(any(UserFilterSpecification.class));
+    }
+
+    @Test
+    @DisplayName("Count runs on the calling thread when the pool is saturated")
+    void given_whenCountPoolIsFull_thenCountInline() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.count(any(UserFilterSpecification.class))).thenAnswer(invocation -> {
+            if (!Thread.currentThread().getName().startsWith("user-count-")) {
+                return 2L;
+            }
+
+            release.await();
+
+            return 1L;
+        });
+        // When
+        CompletableFuture<Long> running = userCountService.count(UserCriteria.builder().q("a").build(), CountModeEnum.EXACT);
+        CompletableFuture<Long> queued = userCountService.count(UserCriteria.builder().q("b").build(), CountModeEnum.EXACT);
+        CompletableFuture<Long> inline = userCountService.count(UserCriteria.builder().q("c").build(), CountModeEnum.EXACT);
+        // Then
+        assertTrue(inline.isDone());
+        assertEquals(2L, inline.join());
+        release.countDown();
+        assertEquals(1L, running.join());
+        assertEquals(1L, queued.join());
+    }
+}
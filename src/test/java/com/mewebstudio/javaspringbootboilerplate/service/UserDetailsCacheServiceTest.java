@@ -0,0 +1,136 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserDetailsCacheService")
+class UserDetailsCacheServiceTest {
+    private UserDetailsCacheService userDetailsCacheService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    private final String id = userId.toString();
+
+    private final JwtUserDetails userDetails = JwtUserDetails.create(Instancio.create(User.class));
+
+    private final AtomicLong revision = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("user:revision:" + id)).thenAnswer(invocation -> String.valueOf(revision.get()));
+        when(valueOperations.increment("user:revision:" + id)).thenAnswer(invocation -> revision.incrementAndGet());
+        userDetailsCacheService = new UserDetailsCacheService(100, 60_000L, stringRedisTemplate,
+            mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Details loaded without an invalidation are cached")
+    void given_whenPutAtCurrentGeneration_thenCache() {
+        // Given
+        long generation = userDetailsCacheService.getGeneration(id);
+        // When
+        userDetailsCacheService.put(id, userDetails, generation);
+        // Then
+        assertEquals(userDetails, userDetailsCacheService.get(id));
+    }
+
+    @Test
+    @DisplayName("Details loaded before an invalidation are dropped")
+    void given_whenInvalidatedDuringLoad_thenDropStaleDetails() {
+        // Given
+        long generation = userDetailsCacheService.getGeneration(id);
+        userDetailsCacheService.invalidate(userId);
+        // When
+        userDetailsCacheService.put(id, userDetails, generation);
+        // Then
+        assertNull(userDetailsCacheService.get(id));
+    }
+
+    @Test
+    @DisplayName("A load racing an invalidation never leaves stale details behind")
+    void given_whenLoadRacesInvalidate_thenNoStaleDetailsRemain() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        for (int i = 0; i < 1000; i++) {
+            // Given
+            long generation = userDetailsCacheService.getGeneration(id);
+            // When
+            CompletableFuture<Void> load = CompletableFuture.runAsync(() -> {
+                await(barrier);
+                userDetailsCacheService.put(id, userDetails, generation);
+            });
+            CompletableFuture<Void> invalidate = CompletableFuture.runAsync(() -> {
+                await(barrier);
+                userDetailsCacheService.invalidate(userId);
+            });
+            CompletableFuture.allOf(load, invalidate).get();
+            // Then
+            assertNull(userDetailsCacheService.get(id), "Stale details cached in round " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Revision is cached until the user is invalidated")
+    void given_whenGetRevision_thenCacheUntilInvalidated() {
+        // When
+        long first = userDetailsCacheService.getRevision(id);
+        revision.set(5);
+        long cached = userDetailsCacheService.getRevision(id);
+        userDetailsCacheService.invalidate(userId);
+        // Then
+        assertEquals(0L, first);
+        assertEquals(0L, cached);
+        assertEquals(6L, userDetailsCacheService.getRevision(id));
+    }
+
+    @Test
+    @DisplayName("A revision load racing an invalidation never leaves the old revision behind")
+    void given_whenRevisionLoadRacesInvalidate_thenNoStaleRevisionRemains() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        for (int i = 0; i < 1000; i++) {
+            // When
+            CompletableFuture<Void> load = CompletableFuture.runAsync(() -> {
+                await(barrier);
+                userDetailsCacheService.getRevision(id);
+            });
+            CompletableFuture<Void> invalidate = CompletableFuture.runAsync(() -> {
+                await(barrier);
+                userDetailsCacheService.invalidate(userId);
+            });
+            CompletableFuture.allOf(load, invalidate).get();
+            // Then
+            assertEquals(revision.get(), userDetailsCacheService.getRevision(id), "Stale revision cached in round " + i);
+        }
+    }
+
+    private static void await(final CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.ExportFormatEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserExportService")
+class UserExportServiceTest {
+    private UserExportService userExportService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final User first = User.builder()
+        .email("john@example.com")
+        .name("John")
+        .lastName("=cmd|' /C calc'!A0")
+        .roles(List.of(Role.builder().name(Constants.RoleEnum.ADMIN).build()))
+        .build();
+
+    private final User second = User.builder()
+        .email("jane@example.com")
+        .name("Jane, \"JD\"")
+        .lastName("Doe")
+        .roles(List.of(Role.builder().name(Constants.RoleEnum.USER).build()))
+        .build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        first.setId(UUID.randomUUID());
+        second.setId(UUID.randomUUID());
+        userExportService = new UserExportService(userRepository, transactionManager,
+            new ObjectMapper().registerModule(new JavaTimeModule()), 1, 60_000L, meterRegistry);
+
+        doAnswer(invocation -> {
+            Consumer<List<User>> consumer = invocation.getArgument(3);
+            consumer.accept(List.of(first));
+            consumer.accept(List.of(second));
+            return null;
+        }).when(userRepository).forEachChunk(any(UserFilterSpecification.class), any(Sort.class), eq(1), any());
+    }
+
+    @Test
+    @DisplayName("Every user is written as one JSON line")
+    void given_whenExportNdjson_thenWriteOneLinePerUser() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // When
+        userExportService.export(UserCriteria.builder().build(), Sort.by("createdAt"), ExportFormatEnum.NDJSON, out);
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"email\":\"john@example.com\""));
+        assertTrue(lines[1].contains("\"roles\":[\"USER\"]"));
+        assertEquals(2, meterRegistry.counter("users.export.rows").count());
+        assertEquals(out.size(), meterRegistry.counter("users.export.bytes").count());
+    }
+
+    @Test
+    @DisplayName("CSV fields are quoted and formulas are neutralized")
+    void given_whenExportCsv_thenEscapeFields() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // When
+        userExportService.export(UserCriteria.builder().build(), Sort.by("createdAt"), ExportFormatEnum.CSV, out);
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,email,name,lastName,roles,emailVerifiedAt,blockedAt,createdAt,updatedAt", lines[0]);
+        assertEquals(first.getId() + ",john@example.com,John,'=cmd|' /C calc'!A0,ADMIN,,,,", lines[1]);
+        assertEquals(second.getId() + ",jane@example.com,\"Jane, \"\"JD\"\"\",Doe,USER,,,,", lines[2]);
+    }
+}
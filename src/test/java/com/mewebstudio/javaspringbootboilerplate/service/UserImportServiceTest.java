@@ -0,0 +1,176 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportErrorResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.security.BoundedPasswordEncoder;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants.ExportFormatEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserImportService")
+class UserImportServiceTest {
+    private static final String PASSWORD = "P@sswd123.";
+
+    private UserImportService userImportService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private MessageSourceService messageSourceService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Role role = Role.builder().name(Constants.RoleEnum.USER).build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        role.setId(UUID.randomUUID());
+        userImportService = new UserImportService(userRepository, roleService, jdbcTemplate, passwordEncoder,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), messageSourceService,
+            transactionManager, 10, 2, new SimpleMeterRegistry());
+
+        when(messageSourceService.get("unique_email")).thenReturn("E-mail is already using");
+        when(messageSourceService.get("invalid_value")).thenReturn("Invalid value");
+        when(passwordEncoder.encode(PASSWORD)).thenReturn("hashed");
+        when(roleService.findByName(Constants.RoleEnum.USER)).thenReturn(role);
+        when(userRepository.findEmailsByEmailIn(anyList())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO users"), anyList())).thenReturn(new int[]{1});
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.destroy();
+    }
+
+    @Test
+    @DisplayName("Valid CSV rows are inserted and invalid rows are reported with their line")
+    void given_whenImportCsv_thenInsertValidRowsAndReportErrors() throws Exception {
+        // Given
+        String csv = "email,password,name,lastName,roles\n"
+            + "john@example.com," + PASSWORD + ",John,\"Doe, Jr.\",USER\n"
+            + "john@example.com," + PASSWORD + ",John,Doe,USER\n"
+            + "invalid," + PASSWORD + ",Jane,Doe,USER\n";
+        // When
+        UserImportResponse response = userImportService.importUsers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExportFormatEnum.CSV);
+        // Then
+        assertEquals(3, response.getTotal());
+        assertEquals(1, response.getImported());
+        assertEquals(List.of(3, 4), response.getErrors().stream().map(UserImportErrorResponse::getLine).toList());
+        assertEquals("E-mail is already using", response.getErrors().get(0).getItems().get("email"));
+        assertTrue(response.getErrors().get(1).getItems().containsKey("email"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> users = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO users"), users.capture());
+        assertEquals(1, users.getValue().size());
+        assertEquals("Doe, Jr.", users.getValue().get(0)[4]);
+        assertEquals("hashed", users.getValue().get(0)[2]);
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO user_roles"), anyList());
+    }
+
+    @Test
+    @DisplayName("NDJSON rows with existing e-mails or invalid JSON are rejected")
+    void given_whenImportNdjson_thenRejectExistingAndMalformedRows() throws Exception {
+        // Given
+        when(userRepository.findEmailsByEmailIn(anyList())).thenReturn(List.of("taken@example.com"));
+        String ndjson = "{\"email\":\"new@example.com\",\"password\":\"" + PASSWORD + "\",\"name\":\"John\","
+            + "\"lastName\":\"Doe\",\"roles\":[\"USER\"],\"id\":\"ignored\"}\n"
+            + "{\"email\":\"taken@example.com\",\"password\":\"" + PASSWORD + "\",\"name\":\"Jane\","
+            + "\"lastName\":\"Doe\",\"roles\":[\"USER\"]}\n"
+            + "\n"
+            + "{not json\n";
+        // When
+        UserImportResponse response = userImportService.importUsers(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ExportFormatEnum.NDJSON);
+        // Then
+        assertEquals(3, response.getTotal());
+        assertEquals(1, response.getImported());
+        assertEquals(List.of(2, 4), response.getErrors().stream().map(UserImportErrorResponse::getLine).toList());
+        assertEquals("Invalid value", response.getErrors().get(1).getItems().get("row"));
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("Rows skipped by the insert conflict are reported as duplicates")
+    void given_whenInsertConflicts_thenRejectRow() throws Exception {
+        // Given
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO users"), anyList())).thenReturn(new int[]{0});
+        String csv = "email,password,name,lastName,roles\njohn@example.com," + PASSWORD + ",John,Doe,USER\n";
+        // When
+        UserImportResponse response = userImportService.importUsers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExportFormatEnum.CSV);
+        // Then
+        assertEquals(0, response.getImported());
+        assertEquals("E-mail is already using", response.getErrors().get(0).getItems().get("email"));
+        verify(jdbcTemplate, times(0)).batchUpdate(startsWith("INSERT INTO user_roles"), anyList());
+    }
+
+    @Test
+    @DisplayName("Passwords are hashed on the import pool, not on the bounded password hashing pool")
+    void given_whenImportWithBoundedEncoder_thenHashOnImportPool() throws Exception {
+        // Given
+        BoundedPasswordEncoder boundedPasswordEncoder = new BoundedPasswordEncoder(passwordEncoder, 1, 1, 1,
+            new SimpleMeterRegistry());
+        UserImportService service = new UserImportService(userRepository, roleService, jdbcTemplate,
+            boundedPasswordEncoder, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+            messageSourceService, transactionManager, 10, 2, new SimpleMeterRegistry());
+        when(passwordEncoder.encode(PASSWORD)).thenAnswer(invocation -> Thread.currentThread().getName());
+        String csv = "email,password,name,lastName,roles\njohn@example.com," + PASSWORD + ",John,Doe,USER\n";
+        try {
+            // When
+            service.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExportFormatEnum.CSV);
+        } finally {
+            service.destroy();
+            boundedPasswordEncoder.destroy();
+        }
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> users = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO users"), users.capture());
+        assertTrue(((String) users.getValue().get(0)[2]).startsWith("user-import-"));
+    }
+}
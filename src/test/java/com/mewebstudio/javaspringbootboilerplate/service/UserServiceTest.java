@@ -14,9 +14,11 @@ import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSend
 import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.exception.ServiceUnavailableException;
 import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.PageCursor;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,33 +27,44 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.BindException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -69,6 +82,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCountService userCountService;
+
     @Mock
     private RoleService roleService;
 
@@ -78,12 +94,18 @@ class UserServiceTest {
     @Mock
     private PasswordResetTokenService passwordResetTokenService;
 
+    @Mock
+    private UserDetailsCacheService userDetailsCacheService;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private MessageSourceService messageSourceService;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @Mock
     Authentication authentication;
 
@@ -100,6 +122,12 @@ class UserServiceTest {
         lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
         lenient().when(authentication.getPrincipal()).thenReturn(jwtUserDetails);
         lenient().when(authentication.isAuthenticated()).thenReturn(true);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Nested
@@ -117,6 +145,18 @@ class UserServiceTest {
             assertEquals(user, result);
         }
 
+        @Test
+        @DisplayName("Reuses the user snapshot of the request")
+        void given_whenGetUserWithSnapshot_thenShouldNotQueryRepository() {
+            // Given
+            when(authentication.getPrincipal()).thenReturn(JwtUserDetails.createWithUser(user));
+            // When
+            User result = userService.getUser();
+            // Then
+            assertEquals(user, result);
+            verify(userRepository, Mockito.never()).findById(any(UUID.class));
+        }
+
         @Test
         @DisplayName("When not authenticated")
         void given_whenGetUserNotAuthenticated_thenShouldThrowBadCredentialsException() {
@@ -163,11 +203,12 @@ class UserServiceTest {
         @DisplayName("Happy path")
         void given_whenFindAllWithPagination_thenAssertBody() {
             // Given
-            Page<User> users = new PageImpl<>(List.of(user));
-            when(userRepository.findAll(any(UserFilterSpecification.class), any(Pageable.class)))
-                .thenReturn(users);
+            when(userCountService.count(any(UserCriteria.class), eq(Constants.CountModeEnum.EXACT)))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+            when(userRepository.findAll(any(UserFilterSpecification.class), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(user));
             // When
-            Page<User> results = userService.findAll(Instancio.create(UserCriteria.class),
+            Page<User> results = (Page<User>) userService.findAll(Instancio.create(UserCriteria.class),
                 PaginationCriteria.builder().page(1).size(1).build());
             // Then
             assertNotNull(results);
@@ -180,6 +221,58 @@ class UserServiceTest {
             assertEquals(user.getLastName(), results.getContent().get(0).getLastName());
             assertEquals(user.getRoles(), results.getContent().get(0).getRoles());
         }
+
+        @Test
+        @DisplayName("Without a count a slice is returned")
+        void given_whenFindAllWithoutCount_thenReturnSlice() {
+            // Given
+            when(userCountService.count(any(UserCriteria.class), eq(Constants.CountModeEnum.NONE)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+            when(userRepository.findAll(any(UserFilterSpecification.class), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(user, Instancio.create(User.class)));
+            // When
+            Slice<User> results = userService.findAll(Instancio.create(UserCriteria.class),
+                PaginationCriteria.builder().page(1).size(1).countMode(Constants.CountModeEnum.NONE).build());
+            // Then
+            assertFalse(results instanceof Page);
+            assertTrue(results.hasNext());
+            assertEquals(List.of(user), results.getContent());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for findAllByCursor scenarios")
+    class FindAllByCursorTest {
+        private final PaginationCriteria paginationCriteria = PaginationCriteria.builder()
+            .size(1).sortBy("createdAt").sort("desc").build();
+
+        @Test
+        @DisplayName("One more row than the size is fetched to detect the next page")
+        void given_whenFindAllByCursor_thenFetchSizePlusOne() {
+            // Given
+            when(userRepository.findAll(any(UserFilterSpecification.class), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(user, Instancio.create(User.class)));
+            // When
+            Slice<User> results = userService.findAllByCursor(Instancio.create(UserCriteria.class), paginationCriteria);
+            // Then
+            assertTrue(results.hasNext());
+            assertEquals(List.of(user), results.getContent());
+            assertEquals(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")),
+                results.getSort());
+        }
+
+        @Test
+        @DisplayName("Cursor of another sort column is rejected")
+        void given_whenFindAllByCursorWithForeignCursor_thenThrowBadRequestException() {
+            // Given
+            paginationCriteria.setCursor(new PageCursor("email", Sort.Direction.DESC, user.getId(), user.getEmail())
+                .encode());
+            // When
+            Executable executable = () -> userService.findAllByCursor(Instancio.create(UserCriteria.class),
+                paginationCriteria);
+            // Then
+            assertThrows(BadRequestException.class, executable);
+        }
     }
 
     @Nested
@@ -289,6 +382,18 @@ class UserServiceTest {
             assertEquals(user.getEmail(), userDetails.getUsername());
         }
 
+        @Test
+        @DisplayName("Served from the near cache")
+        void given_whenLoadUserByIdCached_thenShouldNotQueryRepository() {
+            // Given
+            when(userDetailsCacheService.get(user.getId().toString())).thenReturn(jwtUserDetails);
+            // When
+            UserDetails userDetails = userService.loadUserById(user.getId().toString());
+            // Then
+            assertEquals(jwtUserDetails, userDetails);
+            verify(userRepository, Mockito.never()).findById(any(UUID.class));
+        }
+
         @Test
         @DisplayName("When user not found")
         void given_whenLoadUserById_thenAssertNotFound() {
@@ -331,6 +436,9 @@ class UserServiceTest {
             User result = userService.register(request);
             // Then
             assertNotNull(result);
+            InOrder inOrder = inOrder(passwordEncoder, transactionTemplate);
+            inOrder.verify(passwordEncoder).encode(request.getPassword());
+            inOrder.verify(transactionTemplate).executeWithoutResult(any());
         }
 
         @Test
@@ -417,6 +525,26 @@ class UserServiceTest {
             // Then
             assertNotNull(result);
         }
+
+        @Test
+        @DisplayName("New password is hashed before the transaction")
+        void given_whenUpdateWithPassword_thenHashBeforeTransaction() throws BindException {
+            // Given
+            request.setRoles(null);
+            request.setIsEmailVerified(null);
+            request.setEmail(user.getEmail());
+            request.setPassword("P@ssw0rd123.");
+            when(passwordEncoder.encode("P@ssw0rd123.")).thenReturn("encodedPassword");
+            when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
+            when(userRepository.save(any(User.class))).thenReturn(user);
+            // When
+            User result = userService.update(user.getId(), request);
+            // Then
+            assertEquals("encodedPassword", result.getPassword());
+            InOrder inOrder = inOrder(passwordEncoder, transactionTemplate);
+            inOrder.verify(passwordEncoder).encode("P@ssw0rd123.");
+            inOrder.verify(transactionTemplate).execute(any());
+        }
     }
 
     @Nested
@@ -433,11 +561,30 @@ class UserServiceTest {
             when(userRepository.findById(UUID.fromString(jwtUserDetails.getId()))).thenReturn(Optional.of(user));
             when(passwordEncoder.matches(any(String.class), any(String.class))).thenReturn(true);
             when(passwordEncoder.encode(any(String.class))).thenReturn("encodedPassword");
-            when(userRepository.save(any(User.class))).thenReturn(user);
+            when(userRepository.updatePassword(user.getId(), "encodedPassword", user.getPassword())).thenReturn(1);
             // When
             User result = userService.updatePassword(request);
             // Then
-            assertNotNull(result);
+            assertEquals("encodedPassword", result.getPassword());
+            verify(userDetailsCacheService).invalidate(user.getId());
+        }
+
+        @Test
+        @DisplayName("Password changed while the new one was hashed")
+        void given_whenPasswordChangedConcurrently_thenBindingException() {
+            // Given
+            UpdatePasswordRequest request = Instancio.create(UpdatePasswordRequest.class);
+            request.setOldPassword("OldP@ssw0rd123.");
+            request.setPassword("P@ssw0rd123.");
+            when(userRepository.findById(UUID.fromString(jwtUserDetails.getId()))).thenReturn(Optional.of(user));
+            when(passwordEncoder.matches(any(String.class), any(String.class))).thenReturn(true);
+            when(passwordEncoder.encode(any(String.class))).thenReturn("encodedPassword");
+            when(userRepository.updatePassword(user.getId(), "encodedPassword", user.getPassword())).thenReturn(0);
+            // When
+            Executable executable = () -> userService.updatePassword(request);
+            // Then
+            assertThrows(BindException.class, executable);
+            verify(transactionTemplate, Mockito.never()).execute(any());
         }
 
         @Test
@@ -622,4 +769,43 @@ class UserServiceTest {
                 assertThrows(NotFoundException.class, executable).getMessage());
         }
     }
+
+    @Nested
+    @DisplayName("Test class for upgradePassword scenarios")
+    class UpgradePasswordTest {
+        @Test
+        @DisplayName("Happy path")
+        void given_whenUpgradePassword_thenReplaceHashAndInvalidateCache() {
+            // Given
+            when(passwordEncoder.encode("P@sswd123.")).thenReturn("{bcrypt}new");
+            when(userRepository.updatePassword(user.getId(), "{bcrypt}new", "old")).thenReturn(1);
+            // When
+            userService.upgradePassword(user.getId(), "P@sswd123.", "old");
+            // Then
+            verify(userDetailsCacheService).invalidate(user.getId());
+        }
+
+        @Test
+        @DisplayName("Hash changed in the meantime")
+        void given_whenHashChanged_thenKeepCache() {
+            // Given
+            when(passwordEncoder.encode("P@sswd123.")).thenReturn("{bcrypt}new");
+            when(userRepository.updatePassword(user.getId(), "{bcrypt}new", "old")).thenReturn(0);
+            // When
+            userService.upgradePassword(user.getId(), "P@sswd123.", "old");
+            // Then
+            verify(userDetailsCacheService, Mockito.never()).invalidate(any(UUID.class));
+        }
+
+        @Test
+        @DisplayName("Hashing pool is busy")
+        void given_whenHashingIsBusy_thenSkipUpgrade() {
+            // Given
+            when(passwordEncoder.encode("P@sswd123.")).thenThrow(new ServiceUnavailableException(1));
+            // When
+            userService.upgradePassword(user.getId(), "P@sswd123.", "old");
+            // Then
+            verify(userRepository, Mockito.never()).updatePassword(any(UUID.class), anyString(), anyString());
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for LocalCache")
+class LocalCacheTest {
+    @Test
+    @DisplayName("Counts hits and misses")
+    void given_whenGet_thenCountHitsAndMisses() {
+        // Given
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("key", "value");
+        // When
+        String hit = cache.get("key");
+        String miss = cache.get("other");
+        // Then
+        assertEquals("value", hit);
+        assertNull(miss);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Evicts the least recently used entry when full")
+    void given_whenPutOverMaxSize_thenEvictLeastRecentlyUsed() {
+        // Given
+        LocalCache<String, String> cache = new LocalCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        // When
+        cache.put("c", "3");
+        // Then
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Stays bounded under concurrent puts and gets")
+    void given_whenConcurrentPutAndGet_thenStayBounded() throws InterruptedException {
+        // Given
+        LocalCache<Integer, Integer> cache = new LocalCache<>(100, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // When
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 10_000;
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    cache.put(offset + i, i);
+                    cache.get(offset + i / 2);
+                }
+            });
+        }
+        executor.shutdown();
+        // Then
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(cache.size() <= 100);
+        assertEquals(80_000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Expired entries are not returned")
+    void given_whenPutAlreadyExpired_thenReturnNull() {
+        // Given
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("key", "value", System.currentTimeMillis() - 1);
+        // When
+        String value = cache.get("key");
+        // Then
+        assertNull(value);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Loader result is cached")
+    void given_whenGetWithLoader_thenLoadOnce() {
+        // Given
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        // When
+        cache.get("key", k -> "loaded");
+        String value = cache.get("key", k -> "reloaded");
+        // Then
+        assertEquals("loaded", value);
+    }
+
+    @Test
+    @DisplayName("Invalid max size")
+    void given_whenMaxSizeIsZero_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalCache<String, String>(0, Duration.ofMinutes(1)));
+    }
+}
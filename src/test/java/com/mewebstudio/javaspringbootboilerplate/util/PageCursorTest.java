@@ -0,0 +1,51 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@DisplayName("Unit tests for PageCursor")
+class PageCursorTest {
+    private final User user = Instancio.create(User.class);
+
+    @Test
+    @DisplayName("Encoded cursor is decoded back")
+    void given_whenEncodeAndDecode_thenAssertBody() {
+        // Given
+        String encoded = PageCursor.of("createdAt", Sort.Direction.ASC, user).encode();
+        // When
+        PageCursor cursor = PageCursor.decode(encoded, "createdAt", Sort.Direction.ASC);
+        // Then
+        assertEquals(user.getId(), cursor.getId());
+        assertEquals(user.getCreatedAt().toString(), cursor.getValue());
+    }
+
+    @Test
+    @DisplayName("Cursor of another direction is rejected")
+    void given_whenDecodeWithAnotherDirection_thenThrowBadRequestException() {
+        // Given
+        String encoded = PageCursor.of("email", Sort.Direction.ASC, user).encode();
+        // When & Then
+        assertThrows(BadRequestException.class, () -> PageCursor.decode(encoded, "email", Sort.Direction.DESC));
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("not a cursor", "email", Sort.Direction.ASC));
+    }
+
+    @Test
+    @DisplayName("Last slice has no next cursor")
+    void given_whenNextOfLastSlice_thenReturnNull() {
+        assertNull(PageCursor.next(new SliceImpl<>(List.of(user), PageRequest.of(0, 1, Sort.by("email")), false)));
+    }
+}
@@ -0,0 +1,23 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Tag("unit")
+@DisplayName("Unit tests for TokenDigest")
+class TokenDigestTest {
+    @Test
+    @DisplayName("Digest is a stable base64url SHA-256")
+    void given_whenSha256_thenReturnUrlSafeDigest() {
+        // When
+        String digest = TokenDigest.sha256("abc");
+        // Then
+        assertEquals("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0", digest);
+        assertEquals(digest, TokenDigest.sha256("abc"));
+        assertNotEquals(digest, TokenDigest.sha256("abd"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for UuidV7")
+class UuidV7Test {
+    @Test
+    @DisplayName("Id carries version 7, the IETF variant and the current time")
+    void given_whenGenerate_thenReturnVersion7() {
+        // Given
+        long before = System.currentTimeMillis();
+        // When
+        UUID id = UuidV7.generate();
+        // Then
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    @DisplayName("Ids increase even within the same millisecond")
+    void given_whenGenerateMany_thenIncreaseMonotonically() {
+        // When
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.generate());
+        }
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never get the same id")
+    void given_whenGenerateConcurrently_thenReturnUniqueIds() {
+        // Given
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        // When
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+        // Then
+        assertEquals(100_000, ids.size());
+    }
+}